@@ -0,0 +1,79 @@
+package com.studentmanagement.api.service;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.model.Student;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic entities shaped like production documents: random UUID ids, commit-time timestamps
+ * with microsecond precision and two-decimal fees.
+ */
+final class BenchmarkData {
+
+    private static final String[] TITLES = {"Mr", "Ms", "Mrs", "Dr"};
+    private static final String[] NAMES = {"Eranga Harsha", "Nimal Perera", "Kamala Silva", "Ruwan Fernando",
+            "Dilani Jayasinghe", "Tharindu Bandara", "Ishara Wickramasinghe", "Sachini Rathnayake"};
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Jaffna", "Negombo", "Matara",
+            "Kurunegala", "Anuradhapura"};
+    private static final String[] COURSES = {"Information Technology", "Software Engineering", "Data Science",
+            "Business Management", "Cyber Security"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Student> students(int count) {
+        Random random = new Random(42);
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Timestamp createdAt = timestamp(random);
+            students.add(Student.builder()
+                    .id(uuid(random))
+                    .title(pick(random, TITLES))
+                    .name(pick(random, NAMES))
+                    .address((10 + random.nextInt(490)) + " Galle Road")
+                    .city(pick(random, CITIES))
+                    .course(pick(random, COURSES))
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        return students;
+    }
+
+    static List<Course> courses(int count) {
+        Random random = new Random(7);
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Timestamp createdAt = timestamp(random);
+            courses.add(Course.builder()
+                    .id(uuid(random))
+                    .name(pick(random, COURSES) + " " + (i + 1))
+                    .fee(BigDecimal.valueOf(10_000 + random.nextInt(490_000), 2))
+                    .lecturerId(uuid(random))
+                    .lecturerName("Dr. " + pick(random, NAMES))
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        return courses;
+    }
+
+    private static Timestamp timestamp(Random random) {
+        return Timestamp.ofTimeSecondsAndNanos(1_700_000_000L + random.nextInt(30_000_000),
+                random.nextInt(1_000_000) * 1_000);
+    }
+
+    private static String uuid(Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
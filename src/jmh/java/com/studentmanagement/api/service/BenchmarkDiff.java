@@ -0,0 +1,62 @@
+package com.studentmanagement.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints the change in score and in bytes allocated per operation between two JMH JSON result files:
+ * {@code BenchmarkDiff baseline.json current.json}.
+ */
+public final class BenchmarkDiff {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkDiff <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, double[]> baseline = read(new File(args[0]));
+        Map<String, double[]> current = read(new File(args[1]));
+
+        System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n", "benchmark", "baseline", "current", "change",
+                "base B/op", "curr B/op", "change");
+        current.forEach((name, now) -> {
+            double[] before = baseline.get(name);
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %8s %12s %12.0f %8s%n", name, "-", now[0], "new", "-", now[1], "");
+                return;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %7.1f%% %12.0f %12.0f %7.1f%%%n", name, before[0], now[0],
+                    percent(before[0], now[0]), before[1], now[1], percent(before[1], now[1]));
+        });
+    }
+
+    // benchmark name with its params -> {primary score, bytes allocated per operation}
+    private static Map<String, double[]> read(File file) throws IOException {
+        Map<String, double[]> results = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new LinkedHashMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String name = run.path("benchmark").asText().replaceFirst("^.*\\.(\\w+\\.\\w+)$", "$1")
+                    + (params.isEmpty() ? "" : params.toString());
+            double score = run.path("primaryMetric").path("score").asDouble();
+            double allocation = run.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble(Double.NaN);
+            results.put(name, new double[]{score, allocation});
+        }
+        return results;
+    }
+
+    private static double percent(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+}
@@ -0,0 +1,71 @@
+package com.studentmanagement.api.service;
+
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.dto.StudentResponseDto;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO mapping of one page, done the same way the services do it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"10", "50", "200"})
+    int pageSize;
+
+    private List<Student> students;
+    private List<Course> courses;
+    private List<StudentResponseDto> studentDtos;
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        students = BenchmarkData.students(pageSize);
+        courses = BenchmarkData.courses(pageSize);
+        studentDtos = students.stream().map(StudentService::mapToResponseDto).collect(Collectors.toList());
+        pageRequest = PageRequest.builder().page(3).size(pageSize).sortBy("createdAt").build();
+    }
+
+    @Benchmark
+    public List<StudentResponseDto> mapStudentPage() {
+        return students.stream()
+                .map(StudentService::mapToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    // Includes BigDecimal.toString() on every fee
+    @Benchmark
+    public List<CourseResponseDto> mapCoursePage() {
+        return courses.stream()
+                .map(CourseService::mapToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public PageResponse<StudentResponseDto> pageResponseOf() {
+        return PageResponse.of(studentDtos, pageRequest, 10_000);
+    }
+}
@@ -0,0 +1,103 @@
+package com.studentmanagement.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.studentmanagement.api.config.JacksonConfig;
+import com.studentmanagement.api.config.TimestampSerializer;
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.dto.StudentResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of response bodies, including their com.google.cloud.Timestamp fields,
+ * with an ObjectMapper built the way Spring Boot builds the application's one.
+ *
+ * {@code mapper=default} is a plain Boot mapper, where Timestamps are introspected as beans;
+ * {@code mapper=iso8601}/{@code epochMillis} add the modules from JacksonConfig. The setup prints
+ * the body sizes of each configuration so the byte savings can be read next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "50", "200"})
+    int pageSize;
+
+    @Param({"default", "iso8601", "epochMillis"})
+    String mapper;
+
+    private ObjectWriter writer;
+    private StudentResponseDto student;
+    private PageResponse<StudentResponseDto> studentPage;
+    private PageResponse<CourseResponseDto> coursePage;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        writer = objectMapperBuilder(mapper).build().writer();
+        PageRequest pageRequest = PageRequest.builder().page(3).size(pageSize).sortBy("createdAt").build();
+
+        List<StudentResponseDto> students = BenchmarkData.students(pageSize).stream()
+                .map(StudentService::mapToResponseDto)
+                .collect(Collectors.toList());
+        List<CourseResponseDto> courses = BenchmarkData.courses(pageSize).stream()
+                .map(CourseService::mapToResponseDto)
+                .collect(Collectors.toList());
+        student = students.get(0);
+        studentPage = PageResponse.of(students, pageRequest, 10_000);
+        coursePage = PageResponse.of(courses, pageRequest, 10_000);
+        printSizes();
+    }
+
+    private void printSizes() throws JsonProcessingException {
+        System.out.printf("%n[%s, pageSize=%d] bytes: student=%d studentPage=%d coursePage=%d%n", mapper, pageSize,
+                writer.writeValueAsBytes(student).length, writer.writeValueAsBytes(studentPage).length,
+                writer.writeValueAsBytes(coursePage).length);
+    }
+
+    private static Jackson2ObjectMapperBuilder objectMapperBuilder(String mapper) {
+        return switch (mapper) {
+            case "iso8601" -> Jackson2ObjectMapperBuilder.json().modulesToInstall(
+                    JacksonConfig.timestampModule(TimestampSerializer.Format.ISO_8601), new BlackbirdModule());
+            case "epochMillis" -> Jackson2ObjectMapperBuilder.json().modulesToInstall(
+                    JacksonConfig.timestampModule(TimestampSerializer.Format.EPOCH_MILLIS), new BlackbirdModule());
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+    }
+
+    @Benchmark
+    public byte[] serializeStudent() throws JsonProcessingException {
+        return writer.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public byte[] serializeStudentPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(studentPage);
+    }
+
+    @Benchmark
+    public byte[] serializeCoursePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(coursePage);
+    }
+}
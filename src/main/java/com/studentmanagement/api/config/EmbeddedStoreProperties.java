@@ -0,0 +1,30 @@
+package com.studentmanagement.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.embedded")
+public class EmbeddedStoreProperties {
+
+    // Directory holding one <collection>.log file per collection; created when missing
+    private String directory = "data";
+
+    // Size the log file is mapped at first; it doubles whenever it fills up, up to 2GB
+    private DataSize initialSize = DataSize.ofMegabytes(16);
+
+    // Force every write to disk before acknowledging it; otherwise the OS writes mapped pages back
+    private boolean syncWrites = false;
+
+    // How often to check whether the log needs compacting; zero disables compaction
+    private Duration compactionInterval = Duration.ofMinutes(1);
+
+    // Compact once the log is this many times the size of its live records, and at least minCompactionSize
+    private double compactionRatio = 2.0;
+    private DataSize minCompactionSize = DataSize.ofMegabytes(4);
+}
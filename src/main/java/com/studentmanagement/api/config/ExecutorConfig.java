@@ -0,0 +1,35 @@
+package com.studentmanagement.api.config;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+@Configuration
+@Slf4j
+public class ExecutorConfig {
+
+    public static final String FIRESTORE_CALLBACK_EXECUTOR = "firestoreCallbackExecutor";
+
+    /**
+     * Executor that runs repository continuations once a Firestore ApiFuture completes.
+     *
+     * With spring.threads.virtual.enabled=true (which also switches Tomcat request handling to
+     * virtual threads) each continuation hops off the gRPC transport thread onto its own virtual
+     * thread, so slow mapping or a blocking call in a continuation never stalls the channel.
+     * Otherwise continuations keep running inline on the completing thread.
+     */
+    @Bean(FIRESTORE_CALLBACK_EXECUTOR)
+    public Executor firestoreCallbackExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            log.info("Firestore callbacks run on virtual threads");
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("firestore-callback-", 0).factory());
+        }
+        return MoreExecutors.directExecutor();
+    }
+}
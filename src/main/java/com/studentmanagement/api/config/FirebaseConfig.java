@@ -5,33 +5,57 @@ import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.FirestoreClient;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.io.ClassPathResource;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
 
+// Not loaded under the embedded profile, which needs neither Firebase credentials nor an emulator
 @Configuration
+@Profile("!embedded")
+@RequiredArgsConstructor
+@Slf4j
 public class FirebaseConfig {
 
+    private final FirestoreProperties properties;
+
     @Bean
     public Firestore firestore() {
+        FirestoreProperties.Emulator emulator = properties.getEmulator();
+        if (emulator.isEnabled()) {
+            log.info("Using Firestore emulator at {} (project {})", emulator.getHost(), emulator.getProjectId());
+            // The client uses plaintext and placeholder credentials when an emulator host is set
+            return FirestoreOptions.newBuilder()
+                .setProjectId(emulator.getProjectId())
+                .setEmulatorHost(emulator.getHost())
+                .build()
+                .getService();
+        }
         return FirestoreClient.getFirestore();
     }
-    
+
     @PostConstruct
     public void initializeFirebase() throws IOException {
+        if (properties.getEmulator().isEnabled()) {
+            return;
+        }
         if (FirebaseApp.getApps().isEmpty()) {
             // Use ClassPathResource to load from resources folder
             ClassPathResource resource = new ClassPathResource("firebase-service-account.json");
-            
+
             if (!resource.exists()) {
                 throw new IOException("Firebase service account file not found: firebase-service-account.json. " +
-                    "Please ensure the file exists in src/main/resources/ directory.");
+                    "Please ensure the file exists in src/main/resources/ directory, " +
+                    "or set FIRESTORE_EMULATOR_HOST to use a local emulator.");
             }
-            
+
             try (InputStream serviceAccount = resource.getInputStream()) {
                 FirebaseOptions options = FirebaseOptions.builder()
                     .setCredentials(GoogleCredentials.fromStream(serviceAccount))
@@ -0,0 +1,201 @@
+package com.studentmanagement.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.firestore")
+public class FirestoreProperties {
+
+    private final Count count = new Count();
+    private final Cache cache = new Cache();
+    private final Bulk bulk = new Bulk();
+    private final Export export = new Export();
+    private final CsvImport csvImport = new CsvImport();
+    private final Replica replica = new Replica();
+    private final Emulator emulator = new Emulator();
+    private final Coalescing coalescing = new Coalescing();
+    private final Limiter limiter = new Limiter();
+    private final Hedging hedging = new Hedging();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private final Stale stale = new Stale();
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    @Data
+    public static class Count {
+        // EXACT runs an aggregation query per call, APPROXIMATE serves a locally maintained counter
+        private CountMode mode = CountMode.EXACT;
+
+        // How often the approximate counter is reconciled against an aggregation query
+        private Duration refreshInterval = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Cache {
+        // Read-through cache in front of findById, invalidated on save/deleteById
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+
+        // Also remember ids that were not found, until the TTL expires or the id is written
+        private boolean negativeCaching = false;
+    }
+
+    @Data
+    public static class Bulk {
+        // Writes per WriteBatch commit; Firestore rejects batches above 500
+        private int chunkSize = 500;
+
+        // Batch commits in flight at once for a single bulk request
+        private int parallelism = 4;
+
+        // Largest array accepted by the /bulk endpoints
+        private int maxItems = 10_000;
+    }
+
+    @Data
+    public static class Export {
+        // Documents read per query while streaming an NDJSON export
+        private int chunkSize = 500;
+
+        // Upper bound for a single export response
+        private Duration timeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class CsvImport {
+        // Rows per WriteBatch commit
+        private int batchSize = 500;
+
+        // Commits in flight before the reader stops consuming the upload
+        private int maxInFlightBatches = 4;
+
+        // Document writes per second across an import; 0 disables throttling
+        private int maxWritesPerSecond = 500;
+
+        // Per-row errors kept in the report; further errors are only counted
+        private int maxReportedErrors = 1000;
+
+        // Finished imports kept for GET /students/imports
+        private int historySize = 20;
+
+        private Duration timeout = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class Replica {
+        // Keep an in-memory copy of each collection via snapshot listeners and serve reads from it
+        private boolean enabled = false;
+
+        // Reads fall back to Firestore while a local write has gone undelivered for longer than this
+        private Duration maxLag = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Coalescing {
+        // Identical concurrent reads (same id, page or count) share one Firestore call
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Limiter {
+        // Shed Firestore calls above an adaptive concurrency limit instead of queueing them
+        private boolean enabled = true;
+
+        // AIMD bounds: +1 per limit's worth of calls under the latency target, times backoffRatio otherwise
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private Duration latencyTarget = Duration.ofMillis(300);
+        private double backoffRatio = 0.9;
+
+        // Share of the limit that listings, pages, counts and batch writes may use; single-record calls get all of it
+        private double bulkShare = 0.75;
+
+        // Sent as Retry-After with the 503 returned for a shed call
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Hedging {
+        // Send a second copy of a slow read and use whichever answers first
+        private boolean enabled = false;
+
+        // Only idempotent reads belong here
+        private Set<String> operations = Set.of("findById", "findAllWithPagination", "findAllWithCursor");
+
+        // A hedge is sent once a read runs longer than this percentile of recent reads, within min/maxDelay
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+
+        // Hedges earned per call, i.e. the most extra reads hedging may add
+        private double budget = 0.05;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        // Per-operation breaker: refuse calls for openDuration once too many recent calls failed or were slow
+        private boolean enabled = true;
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private double failureRateThreshold = 0.5;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        private double slowCallRateThreshold = 0.8;
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        // Calls let through while half-open; all must succeed in time to close again
+        private int halfOpenProbes = 3;
+    }
+
+    @Data
+    public static class Stale {
+        // Serve the last good findById/page/count result when Firestore fails, revalidating in the background
+        private boolean enabled = true;
+        private long maximumSize = 10_000;
+
+        // Older results are dropped and the failure is returned instead
+        private Duration maxAge = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class WriteBehind {
+        // Acknowledge updates of existing documents at once and write the latest one per id every flushInterval
+        private boolean enabled = false;
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        // Documents waiting at most; updates beyond this are written directly
+        private int maxPending = 10_000;
+
+        // Documents per WriteBatch commit
+        private int batchSize = 500;
+
+        // Failed flushes of one update before it is dropped and logged
+        private int maxAttempts = 5;
+
+        // How long shutdown waits for the last flush
+        private Duration shutdownTimeout = Duration.ofSeconds(20);
+    }
+
+    @Data
+    public static class Emulator {
+        // host:port of a local Firestore emulator; when set, no service account is needed
+        private String host;
+
+        // Any id works against the emulator; a demo- prefix keeps the Firebase CLI offline
+        private String projectId = "demo-student-management";
+
+        public boolean isEnabled() {
+            return host != null && !host.isBlank();
+        }
+    }
+
+    public enum CountMode {
+        EXACT, APPROXIMATE
+    }
+}
@@ -0,0 +1,38 @@
+package com.studentmanagement.api.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.google.cloud.Timestamp;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Response serialization: Timestamps as a single compact value, and Blackbird so bean properties
+ * are read through generated lambdas instead of reflection.
+ *
+ * Spring Boot registers every Module bean with the application's ObjectMapper, which backs both
+ * the MVC JSON converter and the NDJSON exporter.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module firestoreTimestampModule(JsonProperties properties) {
+        return timestampModule(properties.getTimestampFormat());
+    }
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // LEGACY_OBJECT registers no serializer, so Timestamps are written exactly as before
+    public static Module timestampModule(TimestampSerializer.Format timestampFormat) {
+        SimpleModule module = new SimpleModule("FirestoreTimestamps");
+        if (timestampFormat != TimestampSerializer.Format.LEGACY_OBJECT) {
+            module.addSerializer(Timestamp.class, new TimestampSerializer(timestampFormat));
+        }
+        return module;
+    }
+}
@@ -0,0 +1,14 @@
+package com.studentmanagement.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.json")
+public class JsonProperties {
+
+    // How createdAt/updatedAt are rendered; LEGACY_OBJECT keeps the bean-introspected object of older releases
+    private TimestampSerializer.Format timestampFormat = TimestampSerializer.Format.ISO_8601;
+}
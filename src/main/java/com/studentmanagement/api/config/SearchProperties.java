@@ -0,0 +1,26 @@
+package com.studentmanagement.api.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    // Build the in-memory search index at startup and keep it updated on writes
+    private boolean enabled = true;
+
+    // Results returned when the request gives no limit, and the most a request may ask for
+    private int defaultLimit = 10;
+    private int maxLimit = 50;
+
+    // Documents read per Firestore query while (re)building the index
+    private int loadChunkSize = 500;
+
+    // Full rebuild to pick up writes made by other instances; zero disables it
+    private Duration rebuildInterval = Duration.ZERO;
+}
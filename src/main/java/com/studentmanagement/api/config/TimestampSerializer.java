@@ -0,0 +1,44 @@
+package com.studentmanagement.api.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.google.cloud.Timestamp;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Writes a Firestore Timestamp as one scalar instead of letting Jackson introspect it as a bean,
+ * which emits seconds, nanos and every derived getter.
+ */
+public class TimestampSerializer extends StdSerializer<Timestamp> {
+
+    public enum Format {
+        // "2024-05-01T10:15:30.123456Z", with as many fraction digits as needed
+        ISO_8601,
+        // 1714558530123
+        EPOCH_MILLIS,
+        // {"seconds": 1714558530, "nanos": 123456000, ...}: Jackson's bean view, for clients of older releases
+        LEGACY_OBJECT
+    }
+
+    private final Format format;
+
+    public TimestampSerializer(Format format) {
+        super(Timestamp.class);
+        if (format == Format.LEGACY_OBJECT) {
+            throw new IllegalArgumentException("LEGACY_OBJECT is written by Jackson itself, not by this serializer");
+        }
+        this.format = format;
+    }
+
+    @Override
+    public void serialize(Timestamp value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (format == Format.EPOCH_MILLIS) {
+            generator.writeNumber(value.getSeconds() * 1_000 + value.getNanos() / 1_000_000);
+        } else {
+            generator.writeString(Instant.ofEpochSecond(value.getSeconds(), value.getNanos()).toString());
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.studentmanagement.api.controller;
 
+import com.studentmanagement.api.dto.BulkResponse;
+import com.studentmanagement.api.dto.CourseBulkUpdateDto;
 import com.studentmanagement.api.dto.CourseRequestDto;
 import com.studentmanagement.api.dto.CourseResponseDto;
 import com.studentmanagement.api.dto.PageRequest;
 import com.studentmanagement.api.dto.PageResponse;
 import com.studentmanagement.api.service.CourseService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,85 +26,95 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CourseController {
     private final CourseService courseService;
+    private final NdjsonExporter ndjsonExporter;
 
     @PostMapping("/courses")
-    public ResponseEntity<CourseResponseDto> createCourse(@Valid @RequestBody CourseRequestDto courseRequestDto) {
-        try {
-            CourseResponseDto course = courseService.createCourse(courseRequestDto).get();
-            return ResponseEntity.status(HttpStatus.CREATED).body(course);
-        } catch (Exception e) {
-            log.error("Error creating course: {}", e.getMessage());
-            if (e.getCause() != null) {
-                log.error("Root cause: {}", e.getCause().getMessage());
-            }
-            log.error("Full stack trace", e);
-            throw new RuntimeException("Failed to create course", e);
-        }
+    public CompletableFuture<ResponseEntity<CourseResponseDto>> createCourse(@Valid @RequestBody CourseRequestDto courseRequestDto) {
+        return courseService.createCourse(courseRequestDto)
+                .thenApply(course -> ResponseEntity.status(HttpStatus.CREATED).body(course));
     }
 
     @GetMapping("/courses/{id}")
-    public ResponseEntity<CourseResponseDto> getCourseById(@PathVariable String id) {
-        try {
-            CourseResponseDto course = courseService.getCourseById(id).get();
-            return ResponseEntity.ok(course);
-        } catch (Exception e) {
-            log.error("Error getting course: {}", e.getMessage());
-            throw new RuntimeException("Failed to get course", e);
-        }
+    public CompletableFuture<ResponseEntity<CourseResponseDto>> getCourseById(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return courseService.fetchCourseById(id)
+                .thenApply(course -> StaleResponses.flag(
+                        ETags.conditional(ifNoneMatch, ETags.of(course.value()), course.value()), course));
     }
 
     @PutMapping("/courses/{id}")
-    public ResponseEntity<CourseResponseDto> updateCourse(@PathVariable String id, @Valid @RequestBody CourseRequestDto courseRequestDto) {
-        try {
-            CourseResponseDto course = courseService.updateCourse(id, courseRequestDto).get();
-            return ResponseEntity.ok(course);
-        } catch (Exception e) {
-            log.error("Error updating course: {}", e.getMessage());
-            throw new RuntimeException("Failed to update course", e);
-        }
+    public CompletableFuture<ResponseEntity<CourseResponseDto>> updateCourse(@PathVariable String id, @Valid @RequestBody CourseRequestDto courseRequestDto) {
+        return courseService.updateCourse(id, courseRequestDto)
+                .thenApply(course -> ResponseEntity.ok(course));
     }
 
     @DeleteMapping("/courses/{id}")
-    public ResponseEntity<Void> deleteCourse(@PathVariable String id) {
-        try {
-            courseService.deleteCourse(id).get();
-            return ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            log.error("Error deleting course: {}", e.getMessage());
-            throw new RuntimeException("Failed to delete course", e);
-        }
+    public CompletableFuture<ResponseEntity<Void>> deleteCourse(@PathVariable String id) {
+        return courseService.deleteCourse(id)
+                .thenApply(v -> ResponseEntity.noContent().build());
     }
 
     @GetMapping("/courses")
-    public ResponseEntity<List<CourseResponseDto>> getAllCourses() {
-        try {
-            List<CourseResponseDto> courses = courseService.getAllCourses().get();
-            return ResponseEntity.ok(courses);
-        } catch (Exception e) {
-            log.error("Error getting courses: {}", e.getMessage());
-            throw new RuntimeException("Failed to get courses", e);
-        }
+    public CompletableFuture<ResponseEntity<List<CourseResponseDto>>> getAllCourses(
+            @RequestParam(required = false) String fields) {
+        return courseService.getAllCourses(QueryParams.fields(fields))
+                .thenApply(courses -> ResponseEntity.ok(courses));
     }
     
+    // Streams the whole collection chunk by chunk when the client accepts application/x-ndjson
+    @GetMapping(value = "/courses", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter exportCourses() {
+        return ndjsonExporter.export("courses", courseService::getCoursesAfter, CourseResponseDto::getId);
+    }
+
     @GetMapping("/courses/paginated")
-    public ResponseEntity<PageResponse<CourseResponseDto>> getAllCoursesWithPagination(
+    public CompletableFuture<ResponseEntity<PageResponse<CourseResponseDto>>> getAllCoursesWithPagination(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") PageRequest.SortDirection sortDirection) {
-        try {
-            PageRequest pageRequest = PageRequest.builder()
-                .page(page)
-                .size(size)
-                .sortBy(sortBy)
-                .sortDirection(sortDirection)
-                .build();
-                
-            PageResponse<CourseResponseDto> pageResponse = courseService.getAllCoursesWithPagination(pageRequest).get();
-            return ResponseEntity.ok(pageResponse);
-        } catch (Exception e) {
-            log.error("Error getting courses with pagination: {}", e.getMessage());
-            throw new RuntimeException("Failed to get courses with pagination", e);
-        }
+            @RequestParam(defaultValue = "DESC") PageRequest.SortDirection sortDirection,
+            @RequestParam(defaultValue = "OFFSET") PageRequest.PaginationMode mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        PageRequest pageRequest = PageRequest.builder()
+            .page(page)
+            .size(size)
+            .sortBy(sortBy)
+            .sortDirection(sortDirection)
+            .mode(mode)
+            .cursor(cursor)
+            .fields(QueryParams.fields(fields))
+            .build();
+
+        return courseService.getAllCoursesWithPagination(pageRequest)
+                .thenApply(page -> StaleResponses.flag(ETags.conditional(ifNoneMatch,
+                        ETags.ofPage(page.value(), pageRequest.getFields(), false, ETags::version), page.value()),
+                        page));
+    }
+
+    @PostMapping("/courses/bulk")
+    public CompletableFuture<ResponseEntity<BulkResponse<CourseResponseDto>>> createCourses(@RequestBody List<CourseRequestDto> requests) {
+        return courseService.createCourses(requests)
+                .thenApply(CourseController::toBulkResponse);
+    }
+
+    @PutMapping("/courses/bulk")
+    public CompletableFuture<ResponseEntity<BulkResponse<CourseResponseDto>>> updateCourses(@RequestBody List<CourseBulkUpdateDto> requests) {
+        return courseService.updateCourses(requests)
+                .thenApply(CourseController::toBulkResponse);
+    }
+
+    @DeleteMapping("/courses/bulk")
+    public CompletableFuture<ResponseEntity<BulkResponse<CourseResponseDto>>> deleteCourses(@RequestBody List<String> ids) {
+        return courseService.deleteCourses(ids)
+                .thenApply(CourseController::toBulkResponse);
+    }
+
+    // 200 when every item succeeded, 207 when the per-item results need to be inspected
+    private static <T> ResponseEntity<BulkResponse<T>> toBulkResponse(BulkResponse<T> response) {
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
     }
 }
@@ -0,0 +1,96 @@
+package com.studentmanagement.api.controller;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.dto.StudentResponseDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Strong ETags computed from document ids and {@code updatedAt} instead of from the serialized body,
+ * so a conditional GET that matches is answered with 304 before anything is written.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(StudentResponseDto student) {
+        return tag(version(student));
+    }
+
+    static String of(CourseResponseDto course) {
+        return tag(version(course));
+    }
+
+    // Covers the representation (sorted fields, expansion), the page position, the totals and the version of
+    // every item on the page, so a sparse page never matches the tag of the full one
+    static <T> String ofPage(PageResponse<T> page, Set<String> fields, boolean expandCourse,
+                             Function<T, String> versionOf) {
+        StringBuilder versions = new StringBuilder()
+                .append(new TreeSet<>(fields)).append('/')
+                .append(expandCourse ? "course" : "").append('/')
+                .append(page.getCurrentPage()).append('/')
+                .append(page.getPageSize()).append('/')
+                .append(page.getTotalElements()).append('/')
+                .append(page.getNextCursor()).append('/')
+                .append(page.getPrevCursor());
+        for (T item : page.getContent()) {
+            versions.append('|').append(versionOf.apply(item));
+        }
+        return tag(versions.toString());
+    }
+
+    // 304 with only the ETag when the client already has this version, otherwise 200 with the body
+    static <T> ResponseEntity<T> conditional(String ifNoneMatch, String etag, T body) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    static String version(StudentResponseDto student) {
+        String version = student.getId() + '@' + version(student.getUpdatedAt(), student);
+        CourseResponseDto course = student.getCourseDetails();
+        return course == null ? version : version + '+' + version(course);
+    }
+
+    static String version(CourseResponseDto course) {
+        return course.getId() + '@' + version(course.getUpdatedAt(), course);
+    }
+
+    // Documents written before updatedAt existed fall back to a hash of their content
+    private static String version(Timestamp updatedAt, Object document) {
+        return updatedAt != null
+                ? updatedAt.getSeconds() + "." + updatedAt.getNanos()
+                : "h" + Integer.toHexString(document.hashCode());
+    }
+
+    private static String tag(String versions) {
+        return '"' + DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    // If-None-Match uses weak comparison, so W/ prefixes are ignored
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,133 @@
+package com.studentmanagement.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.studentmanagement.api.config.FirestoreProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Streams a collection as newline-delimited JSON, one Firestore chunk at a time,
+ * so memory stays bounded by the chunk size whatever the collection size.
+ * No thread is held while a chunk is read; only writing a chunk out uses the task executor.
+ */
+@Component
+@Slf4j
+public class NdjsonExporter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private final ObjectWriter writer;
+    private final AsyncTaskExecutor taskExecutor;
+    private final FirestoreProperties.Export properties;
+
+    public NdjsonExporter(ObjectMapper objectMapper,
+                          @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                          FirestoreProperties properties) {
+        this.writer = objectMapper.writer();
+        this.taskExecutor = taskExecutor;
+        this.properties = properties.getExport();
+    }
+
+    /**
+     * @param fetchChunk loads up to {@code limit} items following the given id (null for the first chunk)
+     * @param idOf       id of an item, used as the position for the next chunk
+     */
+    public <T> ResponseBodyEmitter export(String name, BiFunction<String, Integer, CompletableFuture<List<T>>> fetchChunk,
+                                          Function<T, String> idOf) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(properties.getTimeout().toMillis());
+        Export<T> export = new Export<>(name, emitter, fetchChunk, idOf);
+        emitter.onCompletion(export::stop);
+        emitter.onTimeout(export::stop);
+        emitter.onError(throwable -> export.stop());
+        export.fetch(null);
+        return emitter;
+    }
+
+    private <T> byte[] toLines(List<T> chunk) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (T item : chunk) {
+            lines.write(writer.writeValueAsBytes(item));
+            lines.write('\n');
+        }
+        return lines.toByteArray();
+    }
+
+    // Each chunk is requested once the previous one is written, so no thread waits while Firestore reads
+    private final class Export<T> {
+
+        private final String name;
+        private final ResponseBodyEmitter emitter;
+        private final BiFunction<String, Integer, CompletableFuture<List<T>>> fetchChunk;
+        private final Function<T, String> idOf;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        // Only the callback of the current chunk touches this
+        private long written;
+
+        private Export(String name, ResponseBodyEmitter emitter,
+                       BiFunction<String, Integer, CompletableFuture<List<T>>> fetchChunk, Function<T, String> idOf) {
+            this.name = name;
+            this.emitter = emitter;
+            this.fetchChunk = fetchChunk;
+            this.idOf = idOf;
+        }
+
+        void stop() {
+            stopped.set(true);
+        }
+
+        void fetch(String afterId) {
+            if (stopped.get()) {
+                log.info("Export of {} stopped after {} records", name, written);
+                return;
+            }
+            CompletableFuture<List<T>> chunk;
+            try {
+                chunk = fetchChunk.apply(afterId, properties.getChunkSize());
+            } catch (RuntimeException e) {
+                chunk = CompletableFuture.failedFuture(e);
+            }
+            // Sending blocks on the client, so it runs on the task executor rather than a Firestore callback thread
+            chunk.whenCompleteAsync(this::write, taskExecutor);
+        }
+
+        private void write(List<T> chunk, Throwable throwable) {
+            try {
+                if (throwable != null) {
+                    throw throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                }
+                if (!chunk.isEmpty()) {
+                    emitter.send(toLines(chunk), APPLICATION_NDJSON);
+                    written += chunk.size();
+                }
+                if (chunk.size() < properties.getChunkSize()) {
+                    log.info("Export of {} finished after {} records", name, written);
+                    emitter.complete();
+                    return;
+                }
+                fetch(idOf.apply(chunk.get(chunk.size() - 1)));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the response already timed out; nothing left to write to
+                log.info("Export of {} stopped after {} records: {}", name, written, e.getMessage());
+            } catch (Throwable e) {
+                log.error("Export of {} failed after {} records", name, written, e);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.studentmanagement.api.controller;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing of query parameters shared by the list and page endpoints.
+ */
+final class QueryParams {
+
+    private QueryParams() {
+    }
+
+    // fields=id,name,course -> [id, name, course]; absent or blank means every field
+    static Set<String> fields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,30 @@
+package com.studentmanagement.api.controller;
+
+import com.studentmanagement.api.dto.SearchHitDto;
+import com.studentmanagement.api.service.SearchService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.search", name = "enabled", matchIfMissing = true)
+public class SearchController {
+
+    private final SearchService searchService;
+
+    // Answered from the in-memory index only; every word of q also matches as a prefix
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchHitDto>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) SearchHitDto.Type type,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, type, limit));
+    }
+}
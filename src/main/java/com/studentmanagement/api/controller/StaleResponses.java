@@ -0,0 +1,37 @@
+package com.studentmanagement.api.controller;
+
+import com.studentmanagement.api.repository.Fetched;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Flags responses built from results served stale while Firestore was failing (see {@link Fetched}):
+ * {@code Warning: 110} says the response is stale and {@code Age} says how old its oldest part is.
+ */
+final class StaleResponses {
+
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private StaleResponses() {
+    }
+
+    static <T> ResponseEntity<T> flag(ResponseEntity<T> response, Fetched<?> fetched) {
+        return flag(response, fetched, Instant.now());
+    }
+
+    // Fresh results leave the response as it is
+    static <T> ResponseEntity<T> flag(ResponseEntity<T> response, Fetched<?> fetched, Instant now) {
+        if (!fetched.isStale()) {
+            return response;
+        }
+        long age = Math.max(0, Duration.between(fetched.staleSince(), now).toSeconds());
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        headers.set(HttpHeaders.WARNING, STALE_WARNING);
+        headers.set(HttpHeaders.AGE, Long.toString(age));
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+}
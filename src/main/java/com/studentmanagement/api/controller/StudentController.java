@@ -1,19 +1,36 @@
 package com.studentmanagement.api.controller;
 
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.BulkResponse;
+import com.studentmanagement.api.dto.ImportReportDto;
+import com.studentmanagement.api.dto.StudentBulkUpdateDto;
 import com.studentmanagement.api.dto.StudentRequestDto;
 import com.studentmanagement.api.dto.StudentResponseDto;
 import com.studentmanagement.api.dto.PageRequest;
 import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.exception.InvalidQueryException;
+import com.studentmanagement.api.service.StudentImportService;
 import com.studentmanagement.api.service.StudentService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,36 +42,52 @@ import lombok.extern.slf4j.Slf4j;
 public class StudentController {
     
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final NdjsonExporter ndjsonExporter;
+    private final FirestoreProperties properties;
     
     @PostMapping("/student")
-    public ResponseEntity<StudentResponseDto> createStudent(
+    public CompletableFuture<ResponseEntity<StudentResponseDto>> createStudent(
             @Valid @RequestBody StudentRequestDto requestDto) {
-        try {
-            log.info("Creating student: {}", requestDto.getName());
-            StudentResponseDto student = studentService.createStudent(requestDto).get();
-            log.info("Student created successfully with ID: {}", student.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(student);
-        } catch (Exception e) {
-            // Log the actual exception for debugging
-            log.error("Error creating student: {}", e.getMessage());
-            if (e.getCause() != null) {
-                log.error("Root cause: {}", e.getCause().getMessage());
-            }
-            log.error("Full stack trace", e);
-            // Re-throw to trigger global exception handler
-            throw new RuntimeException("Failed to create student", e);
-        }
+        log.info("Creating student: {}", requestDto.getName());
+        return studentService.createStudent(requestDto)
+            .thenApply(student -> {
+                log.info("Student created successfully with ID: {}", student.getId());
+                return ResponseEntity.status(HttpStatus.CREATED).body(student);
+            });
     }
     
     @GetMapping("/student/{id}")
-    public CompletableFuture<ResponseEntity<StudentResponseDto>> getStudent(@PathVariable String id) {
-        return studentService.getStudentById(id)
-            .thenApply(student -> ResponseEntity.ok(student));
+    public CompletableFuture<ResponseEntity<StudentResponseDto>> getStudent(@PathVariable String id,
+            @RequestParam(required = false) String expand,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return studentService.fetchStudentById(id, expandCourse(expand))
+            .thenApply(student -> StaleResponses.flag(
+                ETags.conditional(ifNoneMatch, ETags.of(student.value()), student.value()), student));
     }
     
     @GetMapping("/students")
-    public CompletableFuture<ResponseEntity<List<StudentResponseDto>>> getAllStudents() {
-        return studentService.getAllStudents()
+    public CompletableFuture<ResponseEntity<List<StudentResponseDto>>> getAllStudents(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String expand,
+            @RequestParam(required = false) String fields) {
+        return studentService.getStudents(filters(city, course), QueryParams.fields(fields), expandCourse(expand))
+            .thenApply(students -> ResponseEntity.ok(students));
+    }
+    
+    // Streams the whole collection chunk by chunk when the client accepts application/x-ndjson
+    @GetMapping(value = "/students", produces = NdjsonExporter.APPLICATION_NDJSON_VALUE)
+    public ResponseBodyEmitter exportStudents(@RequestParam(required = false) String expand) {
+        return ndjsonExporter.export("students", studentService.exportChunks(expandCourse(expand)),
+            StudentResponseDto::getId);
+    }
+    
+    // Students enrolled on a course, referenced by either its id or its name
+    @GetMapping("/courses/{courseId}/students")
+    public CompletableFuture<ResponseEntity<List<StudentResponseDto>>> getStudentsByCourse(
+            @PathVariable String courseId) {
+        return studentService.getStudentsByCourse(courseId)
             .thenApply(students -> ResponseEntity.ok(students));
     }
     
@@ -63,17 +96,54 @@ public class StudentController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") PageRequest.SortDirection sortDirection) {
+            @RequestParam(defaultValue = "DESC") PageRequest.SortDirection sortDirection,
+            @RequestParam(defaultValue = "OFFSET") PageRequest.PaginationMode mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String course,
+            @RequestParam(required = false) String expand,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         PageRequest pageRequest = PageRequest.builder()
             .page(page)
             .size(size)
             .sortBy(sortBy)
             .sortDirection(sortDirection)
+            .mode(mode)
+            .cursor(cursor)
+            .filters(filters(city, course))
+            .fields(QueryParams.fields(fields))
             .build();
             
-        return studentService.getAllStudentsWithPagination(pageRequest)
-            .thenApply(pageResponse -> ResponseEntity.ok(pageResponse));
+        boolean expandCourse = expandCourse(expand);
+        return studentService.getAllStudentsWithPagination(pageRequest, expandCourse)
+            .thenApply(page -> StaleResponses.flag(ETags.conditional(ifNoneMatch,
+                ETags.ofPage(page.value(), pageRequest.getFields(), expandCourse, ETags::version), page.value()),
+                page));
+    }
+    
+    // The only expansion so far is course, which embeds the referenced course as courseDetails
+    private static boolean expandCourse(String expand) {
+        if (expand == null || expand.isBlank()) {
+            return false;
+        }
+        if (!"course".equals(expand)) {
+            throw new InvalidQueryException("Unsupported expand '" + expand + "'. Allowed: course");
+        }
+        return true;
+    }
+    
+    // Blank parameters are treated as absent
+    private static Map<String, String> filters(String city, String course) {
+        Map<String, String> filters = new LinkedHashMap<>();
+        if (city != null && !city.isBlank()) {
+            filters.put("city", city);
+        }
+        if (course != null && !course.isBlank()) {
+            filters.put("course", course);
+        }
+        return filters;
     }
     
     @PutMapping("/student/{id}")
@@ -88,4 +158,78 @@ public class StudentController {
         return studentService.deleteStudent(id)
             .thenApply(v -> ResponseEntity.noContent().build());
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/students/bulk")
+    public CompletableFuture<ResponseEntity<BulkResponse<StudentResponseDto>>> createStudents(
+            @RequestBody List<StudentRequestDto> requests) {
+        return studentService.createStudents(requests)
+            .thenApply(StudentController::toBulkResponse);
+    }
+    
+    @PutMapping("/students/bulk")
+    public CompletableFuture<ResponseEntity<BulkResponse<StudentResponseDto>>> updateStudents(
+            @RequestBody List<StudentBulkUpdateDto> requests) {
+        return studentService.updateStudents(requests)
+            .thenApply(StudentController::toBulkResponse);
+    }
+    
+    @DeleteMapping("/students/bulk")
+    public CompletableFuture<ResponseEntity<BulkResponse<StudentResponseDto>>> deleteStudents(
+            @RequestBody List<String> ids) {
+        return studentService.deleteStudents(ids)
+            .thenApply(StudentController::toBulkResponse);
+    }
+    
+    @PostMapping(value = "/students/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public WebAsyncTask<ResponseEntity<ImportReportDto>> importStudents(@RequestParam("file") MultipartFile file) {
+        return importTask(cancelled ->
+            studentImportService.importStudents(file.getInputStream(), file.getOriginalFilename(), cancelled));
+    }
+    
+    @PostMapping(value = "/students/import", consumes = "text/csv")
+    public WebAsyncTask<ResponseEntity<ImportReportDto>> importStudentsFromBody(HttpServletRequest request) {
+        return importTask(cancelled ->
+            studentImportService.importStudents(request.getInputStream(), "request body", cancelled));
+    }
+    
+    // Progress of running imports and reports of recently finished ones
+    @GetMapping("/students/imports")
+    public ResponseEntity<List<ImportReportDto>> getImports() {
+        return ResponseEntity.ok(studentImportService.getImports());
+    }
+    
+    @GetMapping("/students/imports/{id}")
+    public ResponseEntity<ImportReportDto> getImport(@PathVariable String id) {
+        return studentImportService.getImport(id)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    // Imports outlive the default async timeout, so they run as a task with their own limit.
+    // On timeout the import is cancelled as well, rather than left running for a client that got a 503
+    private WebAsyncTask<ResponseEntity<ImportReportDto>> importTask(Importer importer) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        WebAsyncTask<ResponseEntity<ImportReportDto>> task = new WebAsyncTask<>(
+            properties.getCsvImport().getTimeout().toMillis(), () -> {
+                ImportReportDto report = importer.run(cancelled::get);
+                boolean clean = report.getStatus() == ImportReportDto.Status.COMPLETED && report.getRowsFailed() == 0;
+                return ResponseEntity.status(clean ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(report);
+            });
+        task.onTimeout(() -> {
+            cancelled.set(true);
+            throw new AsyncRequestTimeoutException();
+        });
+        return task;
+    }
+    
+    @FunctionalInterface
+    private interface Importer {
+        ImportReportDto run(BooleanSupplier cancelled) throws Exception;
+    }
+    
+    // 200 when every item succeeded, 207 when the per-item results need to be inspected
+    private static <T> ResponseEntity<BulkResponse<T>> toBulkResponse(BulkResponse<T> response) {
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,50 @@
+package com.studentmanagement.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult<T> {
+    
+    // Position of the item in the request array
+    private int index;
+    private String id;
+    private Status status;
+    private List<String> errors;
+    private T data;
+    
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+    
+    public static <T> BulkItemResult<T> success(int index, String id, Status status, T data) {
+        return BulkItemResult.<T>builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .data(data)
+                .build();
+    }
+    
+    public static <T> BulkItemResult<T> failure(int index, String id, Status status, List<String> errors) {
+        return BulkItemResult.<T>builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .errors(errors)
+                .build();
+    }
+    
+    public enum Status {
+        CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, FAILED
+    }
+}
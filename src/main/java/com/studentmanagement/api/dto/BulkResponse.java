@@ -0,0 +1,36 @@
+package com.studentmanagement.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResponse<T> {
+    
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult<T>> results;
+    
+    public static <T> BulkResponse<T> of(List<BulkItemResult<T>> results) {
+        List<BulkItemResult<T>> ordered = results.stream()
+                .sorted(Comparator.comparingInt(BulkItemResult::getIndex))
+                .collect(Collectors.toList());
+        int succeeded = (int) ordered.stream().filter(BulkItemResult::isSuccess).count();
+        
+        return BulkResponse.<T>builder()
+                .total(ordered.size())
+                .succeeded(succeeded)
+                .failed(ordered.size() - succeeded)
+                .results(ordered)
+                .build();
+    }
+}
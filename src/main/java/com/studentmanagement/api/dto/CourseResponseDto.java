@@ -1,10 +1,13 @@
 package com.studentmanagement.api.dto;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import com.google.cloud.Timestamp;
 
 @Data
 @Builder
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 public class CourseResponseDto {
     private String id;
     private String name;
@@ -0,0 +1,41 @@
+package com.studentmanagement.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+    
+    private String id;
+    private String source;
+    private Status status;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private int batchesInFlight;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String failureReason;
+    private List<RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // Line of the upload the row started on
+        private long line;
+        private List<String> errors;
+    }
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,121 @@
+package com.studentmanagement.api.dto;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.exception.InvalidQueryException;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position handed to clients as nextCursor/prevCursor.
+ * Encodes the sort field, direction, the boundary document's sort value and its id.
+ */
+@Value
+public class PageCursor {
+
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_TIMESTAMP = 5;
+
+    String sortBy;
+    PageRequest.SortDirection sortDirection;
+    Position position;
+    Object sortValue;
+    String id;
+
+    public enum Position {
+        // Page starts right after the boundary document
+        AFTER,
+        // Page ends right before the boundary document
+        BEFORE
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeByte(sortDirection.ordinal());
+            out.writeByte(position.ordinal());
+            writeValue(out, sortValue);
+            out.writeUTF(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static PageCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidQueryException("Unsupported cursor version");
+            }
+            String sortBy = in.readUTF();
+            PageRequest.SortDirection direction = PageRequest.SortDirection.values()[in.readByte()];
+            Position position = Position.values()[in.readByte()];
+            Object sortValue = readValue(in);
+            String id = in.readUTF();
+            return new PageCursor(sortBy, direction, position, sortValue, id);
+        } catch (IOException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidQueryException("Invalid cursor");
+        }
+    }
+
+    // Cursors are only valid for the ordering they were issued for
+    public void verifyMatches(PageRequest pageRequest) {
+        if (!sortBy.equals(pageRequest.getSortBy()) || sortDirection != pageRequest.getSortDirection()) {
+            throw new InvalidQueryException("Cursor was issued for sortBy=" + sortBy
+                    + " and sortDirection=" + sortDirection);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof String s) {
+            out.writeByte(TYPE_STRING);
+            out.writeUTF(s);
+        } else if (value instanceof Long || value instanceof Integer) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Double d) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Timestamp t) {
+            out.writeByte(TYPE_TIMESTAMP);
+            out.writeLong(t.getSeconds());
+            out.writeInt(t.getNanos());
+        } else {
+            throw new InvalidQueryException("Cursor pagination is not supported for values of type "
+                    + value.getClass().getSimpleName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_STRING -> in.readUTF();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_TIMESTAMP -> Timestamp.ofTimeSecondsAndNanos(in.readLong(), in.readInt());
+            default -> throw new IOException("Unknown cursor value type: " + type);
+        };
+    }
+}
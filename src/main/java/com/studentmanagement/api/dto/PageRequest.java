@@ -6,8 +6,11 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import jakarta.validation.constraints.Min;
 
+import java.util.Map;
+import java.util.Set;
+
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PageRequest {
@@ -25,7 +28,29 @@ public class PageRequest {
     @Builder.Default
     private SortDirection sortDirection = SortDirection.DESC;
     
+    @Builder.Default
+    private PaginationMode mode = PaginationMode.OFFSET;
+    
+    // Opaque keyset position from a previous PageResponse; implies CURSOR mode
+    private String cursor;
+    
+    // Equality filters (field -> value) applied before sorting and paging
+    @Builder.Default
+    private Map<String, String> filters = Map.of();
+    
+    // Fields to read and return (sparse fieldset); empty means every field
+    @Builder.Default
+    private Set<String> fields = Set.of();
+    
+    public boolean isCursorMode() {
+        return mode == PaginationMode.CURSOR || cursor != null;
+    }
+    
     public enum SortDirection {
         ASC, DESC
     }
+    
+    public enum PaginationMode {
+        OFFSET, CURSOR
+    }
 }
\ No newline at end of file
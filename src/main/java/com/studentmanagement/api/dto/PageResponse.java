@@ -1,5 +1,6 @@
 package com.studentmanagement.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
@@ -23,6 +24,12 @@ public class PageResponse<T> {
     private boolean hasNext;
     private boolean hasPrevious;
     
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String prevCursor;
+    
     public static <T> PageResponse<T> of(List<T> content, PageRequest pageRequest, long totalElements) {
         int totalPages = (int) Math.ceil((double) totalElements / pageRequest.getSize());
         boolean isFirst = pageRequest.getPage() == 0;
@@ -40,4 +47,23 @@ public class PageResponse<T> {
                 .hasPrevious(!isFirst)
                 .build();
     }
+    
+    public static <T> PageResponse<T> ofCursor(List<T> content, PageRequest pageRequest, long totalElements,
+                                               String nextCursor, String prevCursor) {
+        int totalPages = (int) Math.ceil((double) totalElements / pageRequest.getSize());
+        
+        return PageResponse.<T>builder()
+                .content(content)
+                .currentPage(pageRequest.getPage())
+                .pageSize(pageRequest.getSize())
+                .totalElements(totalElements)
+                .totalPages(totalPages)
+                .first(prevCursor == null)
+                .last(nextCursor == null)
+                .hasNext(nextCursor != null)
+                .hasPrevious(prevCursor != null)
+                .nextCursor(nextCursor)
+                .prevCursor(prevCursor)
+                .build();
+    }
 }
\ No newline at end of file
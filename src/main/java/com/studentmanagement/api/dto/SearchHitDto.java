@@ -0,0 +1,29 @@
+package com.studentmanagement.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+
+    private Type type;
+    private String id;
+    private float score;
+
+    // Exactly one of these is set, matching the type
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private StudentResponseDto student;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CourseResponseDto course;
+
+    public enum Type {
+        STUDENT, COURSE
+    }
+}
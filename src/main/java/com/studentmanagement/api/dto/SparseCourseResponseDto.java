@@ -0,0 +1,12 @@
+package com.studentmanagement.api.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A course trimmed to a sparse fieldset (fields=...): the fields left out are null and omitted from the JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseCourseResponseDto extends CourseResponseDto {
+
+    public SparseCourseResponseDto(CourseResponseDto course) {
+        super(course.getId(), course.getName(), course.getFee(), course.getLecturerId(), course.getLecturerName(),
+                course.getCreatedAt(), course.getUpdatedAt());
+    }
+}
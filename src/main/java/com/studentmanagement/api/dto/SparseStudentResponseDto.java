@@ -0,0 +1,12 @@
+package com.studentmanagement.api.dto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A student trimmed to a sparse fieldset (fields=...): the fields left out are null and omitted from the JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SparseStudentResponseDto extends StudentResponseDto {
+
+    public SparseStudentResponseDto(StudentResponseDto student) {
+        super(student.getId(), student.getTitle(), student.getName(), student.getAddress(), student.getCity(),
+                student.getCourse(), student.getCreatedAt(), student.getUpdatedAt(), student.getCourseDetails());
+    }
+}
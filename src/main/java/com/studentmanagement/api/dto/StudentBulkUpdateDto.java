@@ -0,0 +1,14 @@
+package com.studentmanagement.api.dto;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class StudentBulkUpdateDto extends StudentRequestDto {
+    @NotBlank(message = "Id is required")
+    private String id;
+}
@@ -1,9 +1,13 @@
 package com.studentmanagement.api.dto;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.google.cloud.Timestamp;
 @Data
 @Builder
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 public class StudentResponseDto {
     private String id;
     private String title;
@@ -13,4 +17,8 @@ public class StudentResponseDto {
     private String course;
     private Timestamp createdAt;
     private Timestamp updatedAt;
+    
+    // Only present when the request asked for expand=course and the course reference resolved
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CourseResponseDto courseDetails;
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.studentmanagement.api.exception;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 @RestControllerAdvice
+@Slf4j
 public class GlobalExceptionHandler {
     
     @ExceptionHandler(StudentNotFoundException.class)
@@ -32,6 +39,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidQuery(InvalidQueryException ex) {
+        ErrorResponse error = ErrorResponse.builder()
+            .message(ex.getMessage())
+            .status(HttpStatus.BAD_REQUEST.value())
+            .timestamp(LocalDateTime.now())
+            .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+    
+    // Shed or timed-out Firestore calls are a temporary condition, not a server error
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return serviceUnavailable(ex.getMessage(), ex.getRetryAfter());
+    }
+    
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncRequestTimeout(AsyncRequestTimeoutException ex) {
+        return serviceUnavailable("Request timed out, retry later", Duration.ofSeconds(1));
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         List<String> errors = ex.getBindingResult().getFieldErrors()
@@ -48,6 +76,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
     
+    // Futures surface failures wrapped in CompletionException/ExecutionException;
+    // unwrap them so a missing record stays a 404 instead of becoming a 500
+    @ExceptionHandler({CompletionException.class, ExecutionException.class})
+    public ResponseEntity<ErrorResponse> handleAsyncException(Exception ex) {
+        Throwable cause = ex;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        
+        if (cause instanceof StudentNotFoundException notFound) {
+            return handleStudentNotFound(notFound);
+        }
+        if (cause instanceof CourseNotFoundException notFound) {
+            return handleCourseNotFound(notFound);
+        }
+        if (cause instanceof InvalidQueryException invalidQuery) {
+            return handleInvalidQuery(invalidQuery);
+        }
+        if (cause instanceof ServiceOverloadedException overloaded) {
+            return handleServiceOverloaded(overloaded);
+        }
+        log.error("Unhandled async failure", cause);
+        return handleGenericException(ex);
+    }
+    
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse error = ErrorResponse.builder()
@@ -57,4 +111,16 @@ public class GlobalExceptionHandler {
             .build();
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+    
+    private ResponseEntity<ErrorResponse> serviceUnavailable(String message, Duration retryAfter) {
+        ErrorResponse error = ErrorResponse.builder()
+            .message(message)
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .timestamp(LocalDateTime.now())
+            .build();
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+            .body(error);
+    }
 }
\ No newline at end of file
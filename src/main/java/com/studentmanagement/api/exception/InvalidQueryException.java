@@ -0,0 +1,7 @@
+package com.studentmanagement.api.exception;
+
+public class InvalidQueryException extends RuntimeException {
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
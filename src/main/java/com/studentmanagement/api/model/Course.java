@@ -8,11 +8,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Course {
     private String id;
     
@@ -29,6 +30,10 @@ public class Course {
     @NotBlank(message = "Lecturer name is required")
     private String lecturerName;
     
+    // Left null on write so Firestore stores the commit time, which save() reads back from the WriteResult
+    @ServerTimestamp
     private Timestamp createdAt;
+    
+    @ServerTimestamp
     private Timestamp updatedAt;
 }
\ No newline at end of file
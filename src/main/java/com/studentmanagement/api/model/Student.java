@@ -6,11 +6,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.annotation.ServerTimestamp;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Student {
     private String id;
     
@@ -29,6 +30,10 @@ public class Student {
     @NotBlank(message = "Course is required")
     private String course;
     
+    // Left null on write so Firestore stores the commit time, which save() reads back from the WriteResult
+    @ServerTimestamp
     private Timestamp createdAt;
+    
+    @ServerTimestamp
     private Timestamp updatedAt;
 }
\ No newline at end of file
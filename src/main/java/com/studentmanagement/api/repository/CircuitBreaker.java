@@ -0,0 +1,145 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Circuit breaker for one Firestore operation, over a sliding window of its most recent calls.
+ *
+ * CLOSED lets every call through and opens once at least {@code minimumCalls} have been seen and either
+ * the failure rate or the slow-call rate reaches its threshold. OPEN rejects calls until
+ * {@code openDuration} has passed, then HALF_OPEN lets {@code halfOpenProbes} calls through: if they all
+ * succeed in time the breaker closes with a fresh window, otherwise it opens again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final FirestoreProperties.CircuitBreaker properties;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final BiConsumer<State, State> onTransition;
+    private final int[] window;
+    private final AtomicInteger probesLeft = new AtomicInteger();
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private int probeSuccesses;
+    private long openedAt;
+    private volatile State state = State.CLOSED;
+
+    public CircuitBreaker(FirestoreProperties.CircuitBreaker properties, BiConsumer<State, State> onTransition) {
+        this.properties = properties;
+        this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.onTransition = onTransition;
+        this.window = new int[Math.max(1, properties.getWindowSize())];
+    }
+
+    public State state() {
+        return state;
+    }
+
+    // Every permitted call must be followed by onResult or, if it never reached Firestore, onDropped
+    public boolean tryAcquire() {
+        if (state == State.OPEN) {
+            synchronized (this) {
+                if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                    probesLeft.set(properties.getHalfOpenProbes());
+                    probeSuccesses = 0;
+                    transition(State.HALF_OPEN);
+                }
+            }
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> probesLeft.getAndDecrement() > 0;
+        };
+    }
+
+    public synchronized void onResult(long latencyNanos, boolean failed) {
+        int outcome = (failed ? FAILED : 0) | (latencyNanos > slowCallNanos ? SLOW : 0);
+        switch (state) {
+            case CLOSED -> record(outcome);
+            case HALF_OPEN -> {
+                if (outcome != 0) {
+                    open();
+                } else if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // Late answer to a call issued before the breaker opened
+            }
+        }
+    }
+
+    public void onDropped() {
+        if (state == State.HALF_OPEN) {
+            probesLeft.incrementAndGet();
+        }
+    }
+
+    // How long until an open breaker lets a probe through
+    public synchronized Duration retryAfter() {
+        long remaining = state == State.OPEN ? openNanos - (System.nanoTime() - openedAt) : 0;
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    public synchronized double failureRate() {
+        return calls == 0 ? 0 : (double) failures / calls;
+    }
+
+    public synchronized double slowCallRate() {
+        return calls == 0 ? 0 : (double) slowCalls / calls;
+    }
+
+    private void record(int outcome) {
+        if (calls == window.length) {
+            int evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            calls++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (calls >= properties.getMinimumCalls()
+                && (failureRate() >= properties.getFailureRateThreshold()
+                || slowCallRate() >= properties.getSlowCallRateThreshold())) {
+            open();
+        }
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        onTransition.accept(from, to);
+    }
+}
@@ -0,0 +1,96 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Document count for a single collection.
+ *
+ * In EXACT mode every call is delegated to the aggregation query. In APPROXIMATE mode the
+ * last aggregated value is kept in memory, adjusted on local creates/deletes and reconciled
+ * in the background once the refresh interval has passed. Creates and deletes made while a refresh is
+ * running are added to its result, so the refresh does not undo them. A stale aggregate is passed on to
+ * the caller but never kept as the counter's value.
+ */
+@Slf4j
+public class CollectionCounter {
+
+    private final String collectionName;
+    private final FirestoreProperties.CountMode mode;
+    private final long refreshIntervalNanos;
+    private final Supplier<CompletableFuture<Fetched<Long>>> aggregateCount;
+
+    // Local creates minus deletes since startup; the count is the last aggregate plus what changed after it
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicReference<Aggregate> aggregate = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Fetched<Long>>> refreshInFlight = new AtomicReference<>();
+    private volatile long refreshedAtNanos;
+
+    public CollectionCounter(String collectionName, FirestoreProperties.Count properties,
+                             Supplier<CompletableFuture<Fetched<Long>>> aggregateCount) {
+        this.collectionName = collectionName;
+        this.mode = properties.getMode();
+        this.refreshIntervalNanos = properties.getRefreshInterval().toNanos();
+        this.aggregateCount = aggregateCount;
+    }
+
+    public CompletableFuture<Fetched<Long>> get() {
+        if (mode == FirestoreProperties.CountMode.EXACT) {
+            return aggregateCount.get();
+        }
+
+        Aggregate current = aggregate.get();
+        if (current == null) {
+            return refresh();
+        }
+        if (System.nanoTime() - refreshedAtNanos > refreshIntervalNanos) {
+            refresh();
+        }
+        return CompletableFuture.completedFuture(Fetched.fresh(current.countWith(changes.get())));
+    }
+
+    public void increment() {
+        changes.incrementAndGet();
+    }
+
+    public void decrement() {
+        changes.decrementAndGet();
+    }
+
+    private CompletableFuture<Fetched<Long>> refresh() {
+        CompletableFuture<Fetched<Long>> pending = new CompletableFuture<>();
+        CompletableFuture<Fetched<Long>> existing = refreshInFlight.compareAndExchange(null, pending);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Writes acknowledged before the query is sent are in its result; later ones are added on top
+        long changesBefore = changes.get();
+        aggregateCount.get().whenComplete((count, throwable) -> {
+            refreshInFlight.set(null);
+            if (throwable != null) {
+                log.warn("Repository: Failed to refresh {} count: {}", collectionName, throwable.getMessage());
+                pending.completeExceptionally(throwable);
+                return;
+            }
+            if (!count.isStale()) {
+                aggregate.set(new Aggregate(count.value(), changesBefore));
+                refreshedAtNanos = System.nanoTime();
+            }
+            pending.complete(count);
+        });
+        return pending;
+    }
+
+    private record Aggregate(long count, long changesBefore) {
+
+        long countWith(long changes) {
+            return Math.max(0, count + changes - changesBefore);
+        }
+    }
+}
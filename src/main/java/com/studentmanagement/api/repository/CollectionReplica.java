@@ -0,0 +1,241 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link ReplicaIndex} of one collection current through a Firestore snapshot listener.
+ *
+ * The first snapshot after (re)attaching replaces the whole index; later ones apply document changes.
+ * Writes made by this instance are remembered until the listener delivers them: the age of the
+ * oldest one is the replication lag. Reads should only be served from the replica while
+ * {@link #isServing()} holds, and lookups of an id with an undelivered write should go to Firestore.
+ */
+@Slf4j
+public class CollectionReplica<T> {
+
+    private static final Duration RESTART_DELAY = Duration.ofSeconds(5);
+
+    private final String collectionName;
+    private final CollectionReference collection;
+    private final Class<T> type;
+    private final Function<T, Timestamp> updatedAtOf;
+    private final ReplicaIndex<T> index;
+    private final long maxLagNanos;
+    // Snapshot events must be applied in delivery order, so they run on one dedicated thread
+    private final ExecutorService executor;
+    private final Timer propagation;
+
+    // id -> commit time and local nanoTime of a write this instance made that the listener has not delivered yet
+    private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+    private volatile ListenerRegistration registration;
+    private volatile long attachedAtNanos;
+    private volatile boolean synced;
+    private volatile boolean stopped;
+
+    public CollectionReplica(String collectionName, CollectionReference collection, Class<T> type,
+                             Function<T, Timestamp> updatedAtOf, ReplicaIndex<T> index,
+                             FirestoreProperties.Replica properties, MeterRegistry meterRegistry) {
+        this.collectionName = collectionName;
+        this.collection = collection;
+        this.type = type;
+        this.updatedAtOf = updatedAtOf;
+        this.index = index;
+        this.maxLagNanos = properties.getMaxLag().toNanos();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-" + collectionName);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("firestore.replica.lag", this, replica -> replica.lagNanos() / 1e9)
+                .description("Age of the oldest local write not yet delivered by the snapshot listener")
+                .baseUnit("seconds")
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+        Gauge.builder("firestore.replica.documents", index, ReplicaIndex::size)
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+        Gauge.builder("firestore.replica.serving", this, replica -> replica.isServing() ? 1 : 0)
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+        this.propagation = Timer.builder("firestore.replica.propagation")
+                .description("Time from a local write being acknowledged until the listener delivers it")
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+    }
+
+    public void start() {
+        lifecycleLock.lock();
+        try {
+            stopped = false;
+            attach();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    public void stop() {
+        lifecycleLock.lock();
+        try {
+            stopped = true;
+            synced = false;
+            detach();
+            executor.shutdown();
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    public ReplicaIndex<T> index() {
+        return index;
+    }
+
+    public boolean isServing() {
+        return synced && lagNanos() <= maxLagNanos;
+    }
+
+    // A lookup may be answered locally unless this instance wrote the id and has not seen it come back
+    public boolean canServe(String id) {
+        return isServing() && !pendingWrites.containsKey(id);
+    }
+
+    public void writeAcknowledged(String id, Timestamp commitTime) {
+        pendingWrites.put(id, new PendingWrite(commitTime, false, System.nanoTime()));
+    }
+
+    public void deleteAcknowledged(String id, Timestamp commitTime) {
+        pendingWrites.put(id, new PendingWrite(commitTime, true, System.nanoTime()));
+    }
+
+    long lagNanos() {
+        long now = System.nanoTime();
+        return pendingWrites.values().stream()
+                .mapToLong(pending -> now - pending.acknowledgedAtNanos())
+                .max()
+                .orElse(0L);
+    }
+
+    private void onSnapshot(QuerySnapshot snapshot, FirestoreException error) {
+        if (error != null) {
+            // The listener is terminated after an error; serve from Firestore until a new one has synced
+            synced = false;
+            log.warn("Repository: Replica listener for {} failed, retrying in {}s: {}", collectionName,
+                    RESTART_DELAY.toSeconds(), error.getMessage());
+            CompletableFuture.delayedExecutor(RESTART_DELAY.toMillis(), TimeUnit.MILLISECONDS, executor)
+                    .execute(this::restart);
+            return;
+        }
+
+        if (!synced) {
+            List<T> entities = snapshot.getDocuments().stream()
+                    .map(this::toEntity)
+                    .collect(Collectors.toList());
+            applyInitialSnapshot(entities, snapshot.getReadTime());
+            log.info("Repository: Replica of {} synced with {} documents", collectionName, entities.size());
+            return;
+        }
+
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            QueryDocumentSnapshot doc = change.getDocument();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                index.remove(doc.getId());
+                delivered(doc.getId(), null, true);
+            } else {
+                T entity = toEntity(doc);
+                index.put(entity);
+                delivered(doc.getId(), updatedAtOf.apply(entity), false);
+            }
+        }
+    }
+
+    // Replaces the index with the first snapshot after attaching and clears the pending writes it already
+    // reflects: those acknowledged before the listener attached, committed at or before the snapshot's read
+    // time, or superseded by the document's updatedAt. A write acknowledged after attaching can be in it too.
+    void applyInitialSnapshot(List<T> entities, Timestamp readTime) {
+        index.replaceAll(entities);
+        pendingWrites.forEach((id, pending) -> {
+            T entity = index.get(id);
+            Timestamp updatedAt = entity == null ? null : updatedAtOf.apply(entity);
+            boolean reflected = pending.acknowledgedAtNanos() < attachedAtNanos
+                    || (pending.commitTime() != null && readTime != null
+                            && pending.commitTime().compareTo(readTime) <= 0)
+                    || (!pending.deleted() && updatedAt != null && pending.commitTime() != null
+                            && updatedAt.compareTo(pending.commitTime()) >= 0);
+            if (reflected) {
+                pendingWrites.remove(id, pending);
+            }
+        });
+        synced = true;
+    }
+
+    private void restart() {
+        lifecycleLock.lock();
+        try {
+            if (!stopped) {
+                detach();
+                attach();
+            }
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private void attach() {
+        synced = false;
+        attachedAtNanos = System.nanoTime();
+        registration = collection.addSnapshotListener(executor, this::onSnapshot);
+        log.info("Repository: Replica of {} attached, waiting for initial snapshot", collectionName);
+    }
+
+    private void detach() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    private T toEntity(QueryDocumentSnapshot doc) {
+        return doc.toObject(type);
+    }
+
+    // Clears the pending write once the listener shows a state at least as new as the acknowledged one.
+    // Any later event for a deleted id, and a removal of a written id, also supersede it.
+    private void delivered(String id, Timestamp updatedAt, boolean removed) {
+        pendingWrites.computeIfPresent(id, (key, pending) -> {
+            boolean caughtUp = pending.deleted() || removed || pending.commitTime() == null
+                    || (updatedAt != null && updatedAt.compareTo(pending.commitTime()) >= 0);
+            if (!caughtUp) {
+                return pending;
+            }
+            propagation.record(System.nanoTime() - pending.acknowledgedAtNanos(), TimeUnit.NANOSECONDS);
+            return null;
+        });
+    }
+
+    private record PendingWrite(Timestamp commitTime, boolean deleted, long acknowledgedAtNanos) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive (AIMD) limit on concurrent Firestore calls, shared by all repositories.
+ *
+ * Each call that finishes without overloading Firestore adds 1/limit to the limit, so it grows by one per
+ * limit's worth of healthy calls while the limit is actually in use. A call Firestore fails with
+ * DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED or UNAVAILABLE multiplies it by the backoff ratio, as does a
+ * single-record call slower than the latency target; listings and batch writes take longer by nature, so
+ * their latency is not held against that target. The limit backs off at most once per latency target so
+ * one burst of slow answers counts once.
+ *
+ * Bulk calls (listings, pages, counts, batch reads and writes) may only fill {@code bulkShare} of the
+ * limit, so single-record reads and writes still get through while lists are shed. A call over its
+ * limit is rejected at once instead of queueing.
+ *
+ * Calls issued inside {@link #internal} (exports, search loading, CSV imports, write-behind flushes) are
+ * never shed: each of those jobs already bounds its own concurrency, and failing one part-way would
+ * lose work rather than spare Firestore. They still count as in flight, so requests see less room.
+ *
+ * {@code firestore.limiter.limit} and {@code firestore.limiter.in.flight} are gauges;
+ * {@code firestore.limiter.rejected} counts shed calls per priority.
+ */
+public class ConcurrencyLimiter {
+
+    public enum Priority {
+        SINGLE, BULK, INTERNAL
+    }
+
+    private static final Set<String> SINGLE_RECORD_OPERATIONS =
+            Set.of("findById", "findByName", "findByLecturerId", "save", "deleteById");
+
+    private static final Set<StatusCode.Code> OVERLOAD_CODES = Set.of(
+            StatusCode.Code.DEADLINE_EXCEEDED, StatusCode.Code.RESOURCE_EXHAUSTED, StatusCode.Code.UNAVAILABLE);
+
+    private static final ThreadLocal<Boolean> INTERNAL_CALLS = ThreadLocal.withInitial(() -> false);
+
+    private final FirestoreProperties.Limiter properties;
+    private final long latencyTargetNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+
+    public ConcurrencyLimiter(FirestoreProperties.Limiter properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latencyTargetNanos = properties.getLatencyTarget().toNanos();
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(properties.getInitialLimit()));
+        this.lastDecrease = new AtomicLong(System.nanoTime() - latencyTargetNanos);
+
+        Gauge.builder("firestore.limiter.limit", this, ConcurrencyLimiter::limit)
+                .description("Current adaptive limit on concurrent Firestore calls")
+                .register(meterRegistry);
+        Gauge.builder("firestore.limiter.in.flight", inFlight, AtomicInteger::get)
+                .description("Firestore calls admitted by the limiter and not yet answered")
+                .register(meterRegistry);
+        for (Priority priority : List.of(Priority.SINGLE, Priority.BULK)) {
+            rejected.put(priority, Counter.builder("firestore.limiter.rejected")
+                    .description("Firestore calls shed because the concurrency limit was reached")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    // Runs a background job's repository call; the Firestore calls it issues before returning are internal
+    public static <T> T internal(Supplier<T> calls) {
+        boolean outer = INTERNAL_CALLS.get();
+        INTERNAL_CALLS.set(true);
+        try {
+            return calls.get();
+        } finally {
+            INTERNAL_CALLS.set(outer);
+        }
+    }
+
+    public static Priority priorityOf(String operation) {
+        if (INTERNAL_CALLS.get()) {
+            return Priority.INTERNAL;
+        }
+        return SINGLE_RECORD_OPERATIONS.contains(operation) ? Priority.SINGLE : Priority.BULK;
+    }
+
+    // Admits the call unless its priority's share of the limit is in use; every admitted call must be released
+    public boolean tryAcquire(Priority priority) {
+        if (!properties.isEnabled() || priority == Priority.INTERNAL) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        double limit = limit();
+        int allowed = priority == Priority.SINGLE
+                ? (int) limit
+                : Math.max(1, (int) (limit * properties.getBulkShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(Priority priority, long latencyNanos) {
+        release(isSlow(priority, latencyNanos));
+    }
+
+    public void onFailure(Priority priority, long latencyNanos, Throwable throwable) {
+        release(isSlow(priority, latencyNanos) || isOverload(throwable));
+    }
+
+    private boolean isSlow(Priority priority, long latencyNanos) {
+        return priority == Priority.SINGLE && latencyNanos > latencyTargetNanos;
+    }
+
+    // For calls that failed before reaching Firestore; says nothing about its latency
+    public void onDropped() {
+        inFlight.decrementAndGet();
+    }
+
+    public double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public Duration retryAfter() {
+        return properties.getRetryAfter();
+    }
+
+    private void release(boolean overloaded) {
+        int inUse = inFlight.getAndDecrement();
+        if (overloaded) {
+            decrease();
+        } else if (inUse * 2 >= limit()) {
+            // Only grow while the limit is actually being used, so a quiet period does not inflate it
+            update(limit -> Math.min(properties.getMaxLimit(), limit + 1.0 / limit));
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        long last = lastDecrease.get();
+        if (now - last < latencyTargetNanos || !lastDecrease.compareAndSet(last, now)) {
+            return;
+        }
+        update(limit -> Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio()));
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        limitBits.getAndUpdate(bits -> Double.doubleToLongBits(change.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+
+    static boolean isOverload(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException api && OVERLOAD_CODES.contains(api.getStatusCode().getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One keyset page read from Firestore together with the cursors pointing at its neighbours.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private String prevCursor;
+
+    // Orders by the sort field and then document id so the boundary is unique, and positions
+    // the query on the decoded cursor. One extra document is fetched to detect a further page.
+    static Query applyCursor(Query base, PageRequest pageRequest, PageCursor cursor) {
+        Query.Direction direction = pageRequest.getSortDirection() == PageRequest.SortDirection.DESC
+                ? Query.Direction.DESCENDING : Query.Direction.ASCENDING;
+        Query query = base.orderBy(pageRequest.getSortBy(), direction)
+                .orderBy(FieldPath.documentId(), direction);
+
+        int fetchSize = pageRequest.getSize() + 1;
+        if (cursor == null) {
+            return query.limit(fetchSize);
+        }
+        if (cursor.getPosition() == PageCursor.Position.BEFORE) {
+            return query.endBefore(cursor.getSortValue(), cursor.getId()).limitToLast(fetchSize);
+        }
+        return query.startAfter(cursor.getSortValue(), cursor.getId()).limit(fetchSize);
+    }
+
+    static <T> CursorPage<T> fromDocuments(List<QueryDocumentSnapshot> documents, Class<T> type,
+                                           PageRequest pageRequest, PageCursor cursor) {
+        return fromWindow(documents, doc -> doc.toObject(type), doc -> doc.get(pageRequest.getSortBy()),
+                DocumentSnapshot::getId, pageRequest, cursor);
+    }
+
+    // Builds the page from up to size + 1 items fetched in sort order around the cursor
+    static <D, T> CursorPage<T> fromWindow(List<D> fetched, Function<D, T> convert, Function<D, Object> sortValueOf,
+                                           Function<D, String> idOf, PageRequest pageRequest, PageCursor cursor) {
+        boolean backward = cursor != null && cursor.getPosition() == PageCursor.Position.BEFORE;
+        boolean hasMore = fetched.size() > pageRequest.getSize();
+
+        List<D> window = fetched;
+        if (hasMore) {
+            window = backward ? fetched.subList(1, fetched.size()) : fetched.subList(0, pageRequest.getSize());
+        }
+
+        List<T> content = window.stream()
+                .map(convert)
+                .collect(Collectors.toList());
+        if (window.isEmpty()) {
+            return new CursorPage<>(content, null, null);
+        }
+
+        D first = window.get(0);
+        D last = window.get(window.size() - 1);
+        String next;
+        String prev;
+        if (backward) {
+            next = encode(last, sortValueOf, idOf, pageRequest, PageCursor.Position.AFTER);
+            prev = hasMore ? encode(first, sortValueOf, idOf, pageRequest, PageCursor.Position.BEFORE) : null;
+        } else {
+            next = hasMore ? encode(last, sortValueOf, idOf, pageRequest, PageCursor.Position.AFTER) : null;
+            prev = cursor != null ? encode(first, sortValueOf, idOf, pageRequest, PageCursor.Position.BEFORE) : null;
+        }
+        return new CursorPage<>(content, next, prev);
+    }
+
+    private static <D> String encode(D item, Function<D, Object> sortValueOf, Function<D, String> idOf,
+                                     PageRequest pageRequest, PageCursor.Position position) {
+        return new PageCursor(pageRequest.getSortBy(), pageRequest.getSortDirection(), position,
+                sortValueOf.apply(item), idOf.apply(item)).encode();
+    }
+}
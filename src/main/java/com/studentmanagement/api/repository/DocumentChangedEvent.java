@@ -0,0 +1,23 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.Timestamp;
+
+/**
+ * Published by the repositories after a write has been acknowledged by Firestore or the embedded log.
+ * {@code document} is the entity as stored, or null when the document was deleted; {@code deletedAt} is
+ * the commit time of a deletion, comparable with the updatedAt of stored entities.
+ */
+public record DocumentChangedEvent(String collection, String id, Object document, Timestamp deletedAt) {
+
+    public static DocumentChangedEvent saved(String collection, String id, Object document) {
+        return new DocumentChangedEvent(collection, id, document, null);
+    }
+
+    public static DocumentChangedEvent deleted(String collection, String id, Timestamp deletedAt) {
+        return new DocumentChangedEvent(collection, id, null, deletedAt);
+    }
+
+    public boolean isDeletion() {
+        return document == null;
+    }
+}
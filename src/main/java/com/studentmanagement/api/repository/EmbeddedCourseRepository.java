@@ -0,0 +1,197 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.EmbeddedStoreProperties;
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.model.Course;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Courses kept in an {@link EmbeddedLog} on local disk instead of Firestore. Every read is answered
+ * from the in-memory index; writes are appended to the log before they complete.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedCourseRepository implements CourseRepository {
+
+    // Fees are indexed as doubles, so they sort numerically and fit in a page cursor
+    private static final Map<String, Function<Course, ? extends Comparable<?>>> SORT_FIELDS = Map.of(
+            "name", Course::getName,
+            "fee", course -> course.getFee() == null ? null : course.getFee().doubleValue(),
+            "lecturerId", Course::getLecturerId,
+            "lecturerName", Course::getLecturerName,
+            "createdAt", Course::getCreatedAt,
+            "updatedAt", Course::getUpdatedAt,
+            EmbeddedLog.ID_ORDER, Course::getId);
+
+    private final ReplicaIndex<Course> index;
+    private final EmbeddedLog<Course> store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmbeddedCourseRepository(EmbeddedStoreProperties properties, MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        this.index = new ReplicaIndex<>(Course::getId, SORT_FIELDS);
+        this.store = new EmbeddedLog<>(COLLECTION_NAME, Course.class, Course::getId, index, properties,
+                meterRegistry);
+    }
+
+    @PreDestroy
+    void close() {
+        store.close();
+    }
+
+    @Override
+    public CompletableFuture<Course> save(Course course) {
+        Course stored = stamp(course, Timestamp.now());
+        return write(() -> store.put(stored))
+                .thenApply(written -> {
+                    eventPublisher.publishEvent(DocumentChangedEvent.saved(COLLECTION_NAME, course.getId(), course));
+                    return course;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> saveAll(List<Course> courses) {
+        Timestamp writeTime = Timestamp.now();
+        List<Course> stored = courses.stream()
+                .map(course -> stamp(course, writeTime))
+                .toList();
+        return write(() -> store.putAll(stored))
+                .thenApply(written -> {
+                    courses.forEach(course -> eventPublisher.publishEvent(
+                            DocumentChangedEvent.saved(COLLECTION_NAME, course.getId(), course)));
+                    return courses;
+                });
+    }
+
+    // Sets what Firestore's server timestamps would resolve to, and returns the copy the index keeps
+    private static Course stamp(Course course, Timestamp writeTime) {
+        if (course.getId() == null) {
+            course.setId(UUID.randomUUID().toString());
+        }
+        if (course.getCreatedAt() == null) {
+            course.setCreatedAt(writeTime);
+        }
+        course.setUpdatedAt(writeTime);
+        return course.toBuilder().build();
+    }
+
+    // Local reads never fail over to a stale copy
+    @Override
+    public CompletableFuture<Fetched<Course>> fetchById(String id) {
+        return CompletableFuture.completedFuture(Fetched.fresh(index.get(id)));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findAll() {
+        return CompletableFuture.completedFuture(index.findAll());
+    }
+
+    // Whole documents are returned whatever the fieldset; the service trims the response
+    @Override
+    public CompletableFuture<List<Course>> findAll(Set<String> fields) {
+        return findAll();
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findAllAfterId(String afterId, int limit) {
+        return CompletableFuture.completedFuture(index.findAfter(EmbeddedLog.ID_ORDER, afterId, afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(String id) {
+        return deleteAllById(List.of(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllById(List<String> ids) {
+        Timestamp writeTime = Timestamp.now();
+        return write(() -> store.deleteAll(ids))
+                .thenRun(() -> ids.forEach(id ->
+                        eventPublisher.publishEvent(DocumentChangedEvent.deleted(COLLECTION_NAME, id, writeTime))));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Course>> findAllById(Collection<String> ids) {
+        Map<String, Course> found = new HashMap<>();
+        ids.forEach(id -> {
+            Course course = index.get(id);
+            if (course != null) {
+                found.put(id, course);
+            }
+        });
+        return CompletableFuture.completedFuture(found);
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findByLecturerId(String lecturerId) {
+        return CompletableFuture.completedFuture(index.findAll(course -> lecturerId.equals(course.getLecturerId())));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findByName(String name) {
+        return CompletableFuture.completedFuture(index.findAll(course -> name.equals(course.getName())));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findAllByNameIn(Collection<String> names) {
+        return CompletableFuture.completedFuture(index.findAll(course -> names.contains(course.getName())));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsById(String id) {
+        return CompletableFuture.completedFuture(index.get(id) != null);
+    }
+
+    @Override
+    public CompletableFuture<Fetched<Long>> count() {
+        return CompletableFuture.completedFuture(Fetched.fresh((long) index.size()));
+    }
+
+    // Firestore leaves out documents without the sort field, so ordering by an unknown one finds nothing
+    @Override
+    public CompletableFuture<Fetched<List<Course>>> findAllWithPagination(PageRequest pageRequest) {
+        if (!index.isSortable(pageRequest.getSortBy())) {
+            return CompletableFuture.completedFuture(Fetched.fresh(List.of()));
+        }
+        return CompletableFuture.completedFuture(Fetched.fresh(index.findPage(pageRequest)));
+    }
+
+    @Override
+    public CompletableFuture<Fetched<CursorPage<Course>>> findAllWithCursor(PageRequest pageRequest) {
+        PageCursor cursor = null;
+        if (pageRequest.getCursor() != null) {
+            cursor = PageCursor.decode(pageRequest.getCursor());
+            cursor.verifyMatches(pageRequest);
+        }
+        if (!index.isSortable(pageRequest.getSortBy())) {
+            return CompletableFuture.completedFuture(Fetched.fresh(new CursorPage<>(List.of(), null, null)));
+        }
+        return CompletableFuture.completedFuture(Fetched.fresh(index.findCursorPage(pageRequest, cursor)));
+    }
+
+    // A failed append fails the future, as a failed Firestore call would
+    private static CompletableFuture<Void> write(Runnable append) {
+        try {
+            append.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.studentmanagement.api.repository;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.FromStringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.EmbeddedStoreProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of one collection in a memory-mapped file, replayed into a {@link ReplicaIndex} when opened.
+ *
+ * Each write appends one record of puts (the whole document as JSON) and deletes, so a batch is stored
+ * and replayed completely or not at all. It is atomic for durability only: the index is then updated one
+ * document at a time and reads do not lock, so a read running at that moment can see part of the batch.
+ * Records are framed by their length and a CRC32: replay stops at the first torn
+ * record, which a crash can leave at the tail, and later writes overwrite it. Documents are only ever read
+ * from the index, never from the file. Every {@code compactionInterval}, a log that has grown past
+ * {@code compactionRatio} times its live records is rewritten with one put per document, and the new file
+ * replaces the old one by an atomic rename that is made durable by syncing the directory. Writes wait while
+ * that runs; reads do not.
+ *
+ * {@code embedded.log.size} is the bytes in use in the file and {@code embedded.log.live.size} the part
+ * that is still current; {@code embedded.log.compaction} times compactions.
+ */
+@Slf4j
+public class EmbeddedLog<T> {
+
+    // Index field ordering documents by id, as Firestore's __name__ does; used for findAllAfterId
+    public static final String ID_ORDER = "__name__";
+
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int ZEROS = 64 * 1024;
+
+    // Not the application's mapper: Timestamps must keep their nanoseconds and read back as Timestamps
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new SimpleModule("EmbeddedLogTimestamps")
+                    .addSerializer(Timestamp.class, ToStringSerializer.instance)
+                    .addDeserializer(Timestamp.class, new FromStringDeserializer<>(Timestamp.class) {
+                        @Override
+                        protected Timestamp _deserialize(String value, DeserializationContext context) {
+                            return Timestamp.parseTimestamp(value);
+                        }
+                    }));
+
+    private final String collectionName;
+    private final Class<T> type;
+    private final Function<T, String> idOf;
+    private final ReplicaIndex<T> index;
+    private final EmbeddedStoreProperties properties;
+    private final Path path;
+    private final ScheduledExecutorService compactor;
+    private final Timer compaction;
+    // Serializes appends, compaction and close; a lock rather than synchronized, so the file I/O under it
+    // does not pin a virtual thread's carrier
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Bytes taken by the latest put of each id; everything else in the file is dead
+    private Map<String, Integer> liveRecords = new HashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private volatile int end;
+    private volatile long liveBytes;
+
+    public EmbeddedLog(String collectionName, Class<T> type, Function<T, String> idOf, ReplicaIndex<T> index,
+                       EmbeddedStoreProperties properties, MeterRegistry meterRegistry) {
+        this.collectionName = collectionName;
+        this.type = type;
+        this.idOf = idOf;
+        this.index = index;
+        this.properties = properties;
+        try {
+            Path directory = Path.of(properties.getDirectory());
+            Files.createDirectories(directory);
+            this.path = directory.resolve(collectionName + ".log");
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = map(channel, Math.max(channel.size(), properties.getInitialSize().toBytes()));
+            replay();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the " + collectionName + " log", e);
+        }
+        log.info("Opened {} with {} {} ({} of {} bytes live)", path, index.size(), collectionName, liveBytes, end);
+
+        Gauge.builder("embedded.log.size", this, embeddedLog -> embeddedLog.end)
+                .description("Bytes of the log file in use")
+                .baseUnit("bytes")
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+        Gauge.builder("embedded.log.live.size", this, embeddedLog -> embeddedLog.liveBytes)
+                .description("Bytes of the log holding the current version of a document")
+                .baseUnit("bytes")
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+        this.compaction = Timer.builder("embedded.log.compaction")
+                .description("Log compactions")
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+
+        if (properties.getCompactionInterval().isZero()) {
+            this.compactor = null;
+        } else {
+            long interval = properties.getCompactionInterval().toMillis();
+            this.compactor = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name(collectionName + "-compaction").factory());
+            compactor.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void put(T document) {
+        putAll(List.of(document));
+    }
+
+    // The index keeps the given instances, so callers must not modify them afterwards
+    public void putAll(List<T> documents) {
+        append(documents.stream().map(this::putOf).toList());
+    }
+
+    public void deleteAll(Collection<String> ids) {
+        append(ids.stream().map(id -> new Op<T>(DELETE, id, bytes(id), null, null)).toList());
+    }
+
+    public void compact() throws IOException {
+        writeLock.lock();
+        try {
+            long started = System.nanoTime();
+            int before = end;
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            FileChannel compactedChannel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer compactedBuffer;
+            Map<String, Integer> compactedRecords = new HashMap<>();
+            int position = 0;
+            long live = 0;
+            try {
+                compactedBuffer = map(compactedChannel, properties.getInitialSize().toBytes());
+                for (T document : index.findAll()) {
+                    Op<T> op = putOf(document);
+                    int length = Integer.BYTES + op.size();
+                    if ((long) position + HEADER + length > compactedBuffer.capacity()) {
+                        compactedBuffer = map(compactedChannel,
+                                grownCapacity(compactedBuffer, position, HEADER + length));
+                    }
+                    writeRecord(compactedBuffer, position, length, List.of(op));
+                    position += HEADER + length;
+                    compactedRecords.put(op.id(), op.size());
+                    live += op.size();
+                }
+                compactedBuffer.force();
+                Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                compactedChannel.close();
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+            syncDirectory();
+
+            // The old mapping stays valid until it is garbage collected, but nothing writes to it any more
+            FileChannel previous = channel;
+            channel = compactedChannel;
+            buffer = compactedBuffer;
+            end = position;
+            liveRecords = compactedRecords;
+            liveBytes = live;
+            previous.close();
+            compaction.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.info("Compacted {} from {} to {} bytes", path, before, end);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Stops compaction and writes every mapped page back to disk
+    public void close() {
+        writeLock.lock();
+        try {
+            if (compactor != null) {
+                compactor.shutdownNow();
+            }
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Closing the {} log failed: {}", collectionName, e.toString());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // The rename only survives a crash once the directory entry is on disk. The file has already been
+    // replaced, so a failure here is logged rather than undoing the compaction
+    private void syncDirectory() {
+        try (FileChannel directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Some platforms, Windows among them, cannot open a directory as a channel
+            log.warn("Could not sync the directory of {}: {}", path, e.toString());
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (end < properties.getMinCompactionSize().toBytes() || end < properties.getCompactionRatio() * liveBytes) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Compacting the {} log failed, keeping the current one: {}", collectionName, e.toString());
+        }
+    }
+
+    private void append(List<Op<T>> ops) {
+        writeLock.lock();
+        try {
+            if (ops.isEmpty()) {
+                return;
+            }
+            int length = Integer.BYTES + ops.stream().mapToInt(Op::size).sum();
+            if ((long) end + HEADER + length > buffer.capacity()) {
+                try {
+                    buffer = map(channel, grownCapacity(buffer, end, HEADER + length));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot grow the " + collectionName + " log", e);
+                }
+            }
+            writeRecord(buffer, end, length, ops);
+            if (properties.isSyncWrites()) {
+                buffer.force(end, HEADER + length);
+            }
+            end += HEADER + length;
+            ops.forEach(this::apply);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // The length goes in last, so a record is complete before replay can see it
+    private static <T> void writeRecord(MappedByteBuffer target, int position, int length, List<Op<T>> ops) {
+        ByteBuffer body = target.slice(position + HEADER, length);
+        body.putInt(ops.size());
+        for (Op<T> op : ops) {
+            body.put(op.type());
+            body.putShort((short) op.idBytes().length);
+            body.put(op.idBytes());
+            if (op.type() == PUT) {
+                body.putInt(op.json().length);
+                body.put(op.json());
+            }
+        }
+        target.putInt(position + Integer.BYTES, crc(target, position + HEADER, length));
+        target.putInt(position, length);
+    }
+
+    private void replay() throws IOException {
+        int position = 0;
+        while (position + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < Integer.BYTES || length > buffer.capacity() - position - HEADER
+                    || crc(buffer, position + HEADER, length) != buffer.getInt(position + Integer.BYTES)) {
+                log.warn("Discarding a torn record at offset {} of {}", position, path);
+                // Pages can reach the disk out of order, so older bytes past the tear must not be replayed later
+                clear(position);
+                break;
+            }
+            for (Op<T> op : readRecord(buffer.slice(position + HEADER, length))) {
+                apply(op);
+            }
+            position += HEADER + length;
+        }
+        end = position;
+    }
+
+    private List<Op<T>> readRecord(ByteBuffer body) throws IOException {
+        int count = body.getInt();
+        List<Op<T>> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte opType = body.get();
+            byte[] idBytes = new byte[body.getShort() & 0xFFFF];
+            body.get(idBytes);
+            String id = new String(idBytes, StandardCharsets.UTF_8);
+            if (opType == PUT) {
+                byte[] json = new byte[body.getInt()];
+                body.get(json);
+                ops.add(new Op<>(PUT, id, idBytes, json, MAPPER.readValue(json, type)));
+            } else {
+                ops.add(new Op<>(DELETE, id, idBytes, null, null));
+            }
+        }
+        return ops;
+    }
+
+    private void apply(Op<T> op) {
+        Integer previous;
+        if (op.type() == PUT) {
+            index.put(op.document());
+            previous = liveRecords.put(op.id(), op.size());
+            liveBytes += op.size();
+        } else {
+            index.remove(op.id());
+            previous = liveRecords.remove(op.id());
+        }
+        if (previous != null) {
+            liveBytes -= previous;
+        }
+    }
+
+    private Op<T> putOf(T document) {
+        String id = idOf.apply(document);
+        try {
+            return new Op<>(PUT, id, bytes(id), MAPPER.writeValueAsBytes(document), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot serialize " + collectionName + "/" + id, e);
+        }
+    }
+
+    private void clear(int from) {
+        byte[] zeros = new byte[ZEROS];
+        for (int position = from; position < buffer.capacity(); position += ZEROS) {
+            buffer.put(position, zeros, 0, Math.min(ZEROS, buffer.capacity() - position));
+        }
+    }
+
+    private long grownCapacity(MappedByteBuffer current, int position, int needed) {
+        long capacity = current.capacity();
+        while (capacity < (long) position + needed) {
+            capacity *= 2;
+        }
+        if ((long) position + needed > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The " + collectionName + " log has reached its 2GB limit");
+        }
+        return Math.min(capacity, Integer.MAX_VALUE);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    private static int crc(ByteBuffer source, int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(source.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    private static byte[] bytes(String id) {
+        return id.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Op<T>(byte type, String id, byte[] idBytes, byte[] json, T document) {
+
+        int size() {
+            return 1 + Short.BYTES + idBytes.length + (type == PUT ? Integer.BYTES + json.length : 0);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.EmbeddedStoreProperties;
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.model.Student;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Students kept in an {@link EmbeddedLog} on local disk instead of Firestore. Every read is answered
+ * from the in-memory index; writes are appended to the log before they complete.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedStudentRepository implements StudentRepository {
+
+    private final ReplicaIndex<Student> index;
+    private final EmbeddedLog<Student> store;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EmbeddedStudentRepository(EmbeddedStoreProperties properties, MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        Map<String, Function<Student, ? extends Comparable<?>>> sortFields = new HashMap<>(SORT_FIELDS);
+        sortFields.put(EmbeddedLog.ID_ORDER, Student::getId);
+        this.index = new ReplicaIndex<>(Student::getId, sortFields);
+        this.store = new EmbeddedLog<>(COLLECTION_NAME, Student.class, Student::getId, index, properties,
+                meterRegistry);
+    }
+
+    @PreDestroy
+    void close() {
+        store.close();
+    }
+
+    @Override
+    public CompletableFuture<Student> save(Student student) {
+        Student stored = stamp(student, Timestamp.now());
+        return write(() -> store.put(stored))
+                .thenApply(written -> {
+                    eventPublisher.publishEvent(DocumentChangedEvent.saved(COLLECTION_NAME, student.getId(), student));
+                    return student;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> saveAll(List<Student> students) {
+        Timestamp writeTime = Timestamp.now();
+        List<Student> stored = students.stream()
+                .map(student -> stamp(student, writeTime))
+                .toList();
+        return write(() -> store.putAll(stored))
+                .thenApply(written -> {
+                    students.forEach(student -> eventPublisher.publishEvent(
+                            DocumentChangedEvent.saved(COLLECTION_NAME, student.getId(), student)));
+                    return students;
+                });
+    }
+
+    // Sets what Firestore's server timestamps would resolve to, and returns the copy the index keeps
+    private static Student stamp(Student student, Timestamp writeTime) {
+        if (student.getId() == null) {
+            student.setId(UUID.randomUUID().toString());
+        }
+        if (student.getCreatedAt() == null) {
+            student.setCreatedAt(writeTime);
+        }
+        student.setUpdatedAt(writeTime);
+        return student.toBuilder().build();
+    }
+
+    // Local reads never fail over to a stale copy
+    @Override
+    public CompletableFuture<Fetched<Student>> fetchById(String id) {
+        return CompletableFuture.completedFuture(Fetched.fresh(index.get(id)));
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> findAll() {
+        return CompletableFuture.completedFuture(index.findAll());
+    }
+
+    // Whole documents are returned whatever the fieldset; the service trims the response
+    @Override
+    public CompletableFuture<List<Student>> findAllMatching(Map<String, String> filters, Set<String> fields) {
+        return CompletableFuture.completedFuture(index.findAll(StudentRepository.matcher(filters)));
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> findByCourseIn(Collection<String> courses) {
+        return CompletableFuture.completedFuture(index.findAll(student -> courses.contains(student.getCourse())));
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> findAllAfterId(String afterId, int limit) {
+        return CompletableFuture.completedFuture(index.findAfter(EmbeddedLog.ID_ORDER, afterId, afterId, limit));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(String id) {
+        return deleteAllById(List.of(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAllById(List<String> ids) {
+        Timestamp writeTime = Timestamp.now();
+        return write(() -> store.deleteAll(ids))
+                .thenRun(() -> ids.forEach(id ->
+                        eventPublisher.publishEvent(DocumentChangedEvent.deleted(COLLECTION_NAME, id, writeTime))));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Student>> findAllById(Collection<String> ids) {
+        Map<String, Student> found = new HashMap<>();
+        ids.forEach(id -> {
+            Student student = index.get(id);
+            if (student != null) {
+                found.put(id, student);
+            }
+        });
+        return CompletableFuture.completedFuture(found);
+    }
+
+    @Override
+    public CompletableFuture<Fetched<List<Student>>> findAllWithPagination(PageRequest pageRequest) {
+        return CompletableFuture.completedFuture(Fetched.fresh(
+                index.findPage(pageRequest, StudentRepository.matcher(pageRequest.getFilters()))));
+    }
+
+    @Override
+    public CompletableFuture<Fetched<CursorPage<Student>>> findAllWithCursor(PageRequest pageRequest) {
+        PageCursor cursor = null;
+        if (pageRequest.getCursor() != null) {
+            cursor = PageCursor.decode(pageRequest.getCursor());
+            cursor.verifyMatches(pageRequest);
+        }
+        return CompletableFuture.completedFuture(Fetched.fresh(
+                index.findCursorPage(pageRequest, cursor, StudentRepository.matcher(pageRequest.getFilters()))));
+    }
+
+    @Override
+    public CompletableFuture<Fetched<Long>> count() {
+        return CompletableFuture.completedFuture(Fetched.fresh((long) index.size()));
+    }
+
+    @Override
+    public CompletableFuture<Fetched<Long>> count(Map<String, String> filters) {
+        return CompletableFuture.completedFuture(Fetched.fresh(index.count(StudentRepository.matcher(filters))));
+    }
+
+    // A failed append fails the future, as a failed Firestore call would
+    private static CompletableFuture<Void> write(Runnable append) {
+        try {
+            append.run();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
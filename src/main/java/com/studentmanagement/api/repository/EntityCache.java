@@ -0,0 +1,74 @@
+package com.studentmanagement.api.repository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded, TTL-based read-through cache for documents looked up by id.
+ * Concurrent misses for the same id share a single load. When disabled every call goes to the loader.
+ */
+public class EntityCache<T> {
+
+    private final AsyncCache<String, Optional<T>> cache;
+    private final boolean negativeCaching;
+
+    public EntityCache(String name, FirestoreProperties.Cache properties, MeterRegistry meterRegistry) {
+        this.negativeCaching = properties.isNegativeCaching();
+        if (!properties.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+        AsyncCache<String, Optional<T>> asyncCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, asyncCache, name);
+    }
+
+    public CompletableFuture<T> get(String id, Function<String, CompletableFuture<T>> loader) {
+        return get(id, loader, value -> true);
+    }
+
+    // Loaded values failing cacheable are returned to the callers waiting on that load, then dropped
+    public CompletableFuture<T> get(String id, Function<String, CompletableFuture<T>> loader, Predicate<T> cacheable) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        CompletableFuture<Optional<T>> future = cache.get(id, (key, executor) ->
+                loader.apply(key).thenApply(Optional::ofNullable));
+
+        return future.thenApply(result -> {
+            if (result.isEmpty() ? !negativeCaching : !cacheable.test(result.get())) {
+                // Only drop the entry this load produced, never a newer value written meanwhile
+                cache.asMap().remove(id, future);
+            }
+            return result.orElse(null);
+        });
+    }
+
+    public void put(String id, T entity) {
+        if (cache != null) {
+            cache.put(id, CompletableFuture.completedFuture(Optional.of(entity)));
+        }
+    }
+
+    public void evict(String id) {
+        if (cache == null) {
+            return;
+        }
+        if (negativeCaching) {
+            cache.put(id, CompletableFuture.completedFuture(Optional.empty()));
+        } else {
+            cache.synchronous().invalidate(id);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.studentmanagement.api.repository;
+
+import java.time.Instant;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The result of a read that a {@link StaleStore} may have answered while Firestore was failing.
+ * {@code staleSince} is when the stale result was originally fetched, and null for a fresh one.
+ */
+public record Fetched<T>(T value, Instant staleSince) {
+
+    public static <T> Fetched<T> fresh(T value) {
+        return new Fetched<>(value, null);
+    }
+
+    public boolean isStale() {
+        return staleSince != null;
+    }
+
+    public <R> Fetched<R> map(Function<? super T, ? extends R> mapper) {
+        return new Fetched<>(mapper.apply(value), staleSince);
+    }
+
+    // A result built from two reads is as stale as the older of them
+    public <U, R> Fetched<R> combine(Fetched<U> other, BiFunction<? super T, ? super U, ? extends R> combiner) {
+        Instant oldest = staleSince == null ? other.staleSince
+                : other.staleSince == null || staleSince.isBefore(other.staleSince) ? staleSince
+                : other.staleSince;
+        return new Fetched<>(combiner.apply(value, other.value), oldest);
+    }
+}
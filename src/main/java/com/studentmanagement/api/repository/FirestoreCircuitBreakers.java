@@ -0,0 +1,110 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per collection and operation, created on first use.
+ *
+ * {@code firestore.circuit.state} is 0 while closed, 1 while open and 2 while half-open;
+ * {@code firestore.circuit.transitions} counts state changes and {@code firestore.circuit.rejected}
+ * counts calls refused by an open breaker. The health endpoint lists every breaker with its state and
+ * current rates. It stays UP while breakers are open, since stale reads are still being served.
+ *
+ * Errors caused by the request itself (see {@link #isClientError}) are recorded as successful calls, so a
+ * client sending bad queries cannot open the circuit for everyone else.
+ */
+@Component
+@Slf4j
+public class FirestoreCircuitBreakers implements HealthIndicator {
+
+    private static final Set<StatusCode.Code> CLIENT_ERROR_CODES = Set.of(
+            StatusCode.Code.INVALID_ARGUMENT, StatusCode.Code.FAILED_PRECONDITION, StatusCode.Code.NOT_FOUND,
+            StatusCode.Code.ALREADY_EXISTS, StatusCode.Code.OUT_OF_RANGE);
+
+    private final FirestoreProperties.CircuitBreaker properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public FirestoreCircuitBreakers(FirestoreProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getCircuitBreaker();
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Null when circuit breaking is disabled
+    public Breaker forOperation(String collection, String operation) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return breakers.computeIfAbsent(collection + '/' + operation, key -> newBreaker(collection, operation));
+    }
+
+    // Firestore answered, and the error says the request was wrong rather than that Firestore is unhealthy
+    public static boolean isClientError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException api) {
+                return CLIENT_ERROR_CODES.contains(api.getStatusCode().getCode());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new TreeMap<>();
+        breakers.forEach((name, breaker) -> {
+            Map<String, Object> breakerDetails = new LinkedHashMap<>();
+            breakerDetails.put("state", breaker.circuit().state());
+            breakerDetails.put("failureRate", breaker.circuit().failureRate());
+            breakerDetails.put("slowCallRate", breaker.circuit().slowCallRate());
+            details.put(name, breakerDetails);
+        });
+        return Health.up().withDetails(details).build();
+    }
+
+    private Breaker newBreaker(String collection, String operation) {
+        CircuitBreaker circuit = new CircuitBreaker(properties, (from, to) -> {
+            log.warn("Firestore circuit for {}/{} {} -> {}", collection, operation, from, to);
+            Counter.builder("firestore.circuit.transitions")
+                    .description("Circuit breaker state changes")
+                    .tags("collection", collection, "operation", operation,
+                            "from", from.name().toLowerCase(), "to", to.name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        });
+        Gauge.builder("firestore.circuit.state", circuit, breaker -> breaker.state().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tags("collection", collection, "operation", operation)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("firestore.circuit.rejected")
+                .description("Firestore calls refused because the circuit was open")
+                .tags("collection", collection, "operation", operation)
+                .register(meterRegistry);
+        return new Breaker(circuit, rejected);
+    }
+
+    public record Breaker(CircuitBreaker circuit, Counter rejected) {
+
+        public boolean tryAcquire() {
+            if (circuit.tryAcquire()) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.model.Course;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+@Repository
+@Profile("!embedded")
+@Slf4j
+public class FirestoreCourseRepository implements CourseRepository {
+
+    private final Firestore firestore;
+    private final FirestoreFutures firestoreFutures;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CollectionCounter counter;
+    private final EntityCache<Fetched<Course>> cache;
+    private final CollectionReplica<Course> replica;
+    private final SingleFlight singleFlight;
+    private final StaleStore staleStore;
+    private final WriteBehindBuffer<Course> writeBehind;
+    private static final int MAX_IN_VALUES = 30;
+
+    // Fields the replica keeps sorted indexes for. Fee is left to Firestore, which orders the
+    // stored value rather than the BigDecimal and cannot be carried in a page cursor.
+    private static final Map<String, Function<Course, ? extends Comparable<?>>> REPLICA_SORT_FIELDS = Map.of(
+            "name", Course::getName,
+            "lecturerId", Course::getLecturerId,
+            "lecturerName", Course::getLecturerName,
+            "createdAt", Course::getCreatedAt,
+            "updatedAt", Course::getUpdatedAt);
+
+    public FirestoreCourseRepository(Firestore firestore, FirestoreFutures firestoreFutures,
+            FirestoreProperties properties, MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher) {
+        this.firestore = firestore;
+        this.firestoreFutures = firestoreFutures;
+        this.eventPublisher = eventPublisher;
+        this.counter = new CollectionCounter(COLLECTION_NAME, properties.getCount(), this::countFromFirestore);
+        this.cache = new EntityCache<>(COLLECTION_NAME, properties.getCache(), meterRegistry);
+        this.singleFlight = new SingleFlight(COLLECTION_NAME, properties.getCoalescing().isEnabled(), meterRegistry);
+        this.staleStore = new StaleStore(COLLECTION_NAME, properties.getStale(), meterRegistry);
+        // Flushes write copies, since commitBatch updates the documents it is given
+        this.writeBehind = new WriteBehindBuffer<>(COLLECTION_NAME, properties.getWriteBehind(),
+                pending -> ConcurrencyLimiter.internal(
+                        () -> commitBatch(pending.stream().map(document -> document.toBuilder().build()).toList())),
+                meterRegistry);
+        this.replica = properties.getReplica().isEnabled()
+                ? new CollectionReplica<>(COLLECTION_NAME, firestore.collection(COLLECTION_NAME), Course.class,
+                        Course::getUpdatedAt, new ReplicaIndex<>(Course::getId, REPLICA_SORT_FIELDS),
+                        properties.getReplica(), meterRegistry)
+                : null;
+    }
+
+    @PostConstruct
+    void startReplica() {
+        if (replica != null) {
+            replica.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writeBehind.close();
+        if (replica != null) {
+            replica.stop();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Course> save(Course course) {
+        boolean isNew = course.getId() == null;
+        if (isNew) {
+            course.setId(UUID.randomUUID().toString());
+        }
+        if (!isNew && bufferUpdate(course)) {
+            return CompletableFuture.completedFuture(course);
+        }
+        course.setUpdatedAt(null);
+
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(course.getId());
+        return apiFutureToCompletableFuture("save", () -> docRef.set(course))
+                .thenApply(writeResult -> {
+                    applyCommitTime(course, writeResult.getUpdateTime());
+                    if (isNew) {
+                        counter.increment();
+                    }
+                    cache.put(course.getId(), Fetched.fresh(course));
+                    staleStore.evict("findById", course.getId());
+                    eventPublisher.publishEvent(DocumentChangedEvent.saved(COLLECTION_NAME, course.getId(), course));
+                    if (replica != null) {
+                        replica.writeAcknowledged(course.getId(), course.getUpdatedAt());
+                    }
+                    return course;
+                });
+    }
+
+    // Server timestamps resolve to the commit time, so the entity now matches what a re-read would return
+    private void applyCommitTime(Course course, Timestamp commitTime) {
+        if (course.getCreatedAt() == null) {
+            course.setCreatedAt(commitTime);
+        }
+        course.setUpdatedAt(commitTime);
+    }
+
+    // Acknowledges an update once the write-behind buffer holds it; updatedAt is provisional until the flush commits
+    private boolean bufferUpdate(Course course) {
+        Course pending = course.toBuilder().updatedAt(Timestamp.now()).build();
+        if (!writeBehind.offer(course.getId(), pending)) {
+            return false;
+        }
+        course.setUpdatedAt(pending.getUpdatedAt());
+        cache.put(course.getId(), Fetched.fresh(pending));
+        staleStore.evict("findById", course.getId());
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Fetched<Course>> fetchById(String id) {
+        Course pending = writeBehind.get(id);
+        if (pending != null) {
+            return CompletableFuture.completedFuture(Fetched.fresh(pending));
+        }
+        if (replica != null && replica.canServe(id)) {
+            return CompletableFuture.completedFuture(Fetched.fresh(replica.index().get(id)));
+        }
+        // A stale answer is not cached, so the next read tries Firestore again
+        return cache.get(id, this::loadById, fetched -> !fetched.isStale())
+                .thenApply(fetched -> fetched == null ? Fetched.fresh(null) : fetched);
+    }
+
+    // A missing course loads as null, so the cache can tell it apart
+    private CompletableFuture<Fetched<Course>> loadById(String id) {
+        return staleStore.read("findById", id, () -> singleFlight.execute("findById", id, () -> readById(id)))
+                .thenApply(fetched -> fetched.value() == null ? null : fetched);
+    }
+
+    private CompletableFuture<Course> readById(String id) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return apiFutureToCompletableFuture("findById", docRef::get)
+                .thenApply(documentSnapshot -> {
+                    if (documentSnapshot.exists()) {
+                        return documentSnapshot.toObject(Course.class);
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findAll() {
+        return findAll(Set.of());
+    }
+
+    // Every course, reading only the given fields (all when empty)
+    @Override
+    public CompletableFuture<List<Course>> findAll(Set<String> fields) {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(replica.index().findAll());
+        }
+        return singleFlight.execute("findAll", Set.copyOf(fields), () -> queryAll(fields));
+    }
+
+    private CompletableFuture<List<Course>> queryAll(Set<String> fields) {
+        Query query = Projections.select(firestore.collection(COLLECTION_NAME), fields);
+
+        return apiFutureToCompletableFuture("findAll", query::get)
+                .thenApply(querySnapshot ->
+                        querySnapshot.getDocuments().stream()
+                                .map(doc -> doc.toObject(Course.class))
+                                .collect(Collectors.toList()));
+    }
+
+    // Reads the next chunk in document id order; used to stream the collection without loading it whole
+    @Override
+    public CompletableFuture<List<Course>> findAllAfterId(String afterId, int limit) {
+        Query query = firestore.collection(COLLECTION_NAME)
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+        return apiFutureToCompletableFuture("findAllAfterId", query::get)
+                .thenApply(querySnapshot ->
+                        querySnapshot.getDocuments().stream()
+                                .map(doc -> doc.toObject(Course.class))
+                                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(String id) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return writeBehind.discard(List.of(id))
+                .thenCompose(flushed -> apiFutureToCompletableFuture("deleteById", docRef::delete))
+                .thenApply(writeResult -> {
+                    counter.decrement();
+                    cache.evict(id);
+                    staleStore.evict("findById", id);
+                    eventPublisher.publishEvent(
+                            DocumentChangedEvent.deleted(COLLECTION_NAME, id, writeResult.getUpdateTime()));
+                    if (replica != null) {
+                        replica.deleteAcknowledged(id, writeResult.getUpdateTime());
+                    }
+                    return null;
+                });
+    }
+
+    // Writes up to 500 courses in a single atomic WriteBatch commit. Older buffered updates of the same ids
+    // are dropped first, so a later flush cannot overwrite the bulk write with them.
+    @Override
+    public CompletableFuture<List<Course>> saveAll(List<Course> courses) {
+        List<String> ids = courses.stream().map(Course::getId).filter(Objects::nonNull).toList();
+        return writeBehind.discard(ids)
+                .thenCompose(flushed -> commitBatch(courses));
+    }
+
+    // The write-behind flush commits through here; updates buffered while it runs must stay pending
+    private CompletableFuture<List<Course>> commitBatch(List<Course> courses) {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        WriteBatch batch = firestore.batch();
+        int created = 0;
+        for (Course course : courses) {
+            if (course.getId() == null) {
+                course.setId(UUID.randomUUID().toString());
+                created++;
+            }
+            course.setUpdatedAt(null);
+            batch.set(collection.document(course.getId()), course);
+        }
+        int createdCount = created;
+
+        return apiFutureToCompletableFuture("saveAll", batch::commit)
+                .thenApply(writeResults -> {
+                    for (int i = 0; i < courses.size(); i++) {
+                        Course course = courses.get(i);
+                        applyCommitTime(course, writeResults.get(i).getUpdateTime());
+                        cache.put(course.getId(), Fetched.fresh(course));
+                        staleStore.evict("findById", course.getId());
+                        eventPublisher.publishEvent(
+                                DocumentChangedEvent.saved(COLLECTION_NAME, course.getId(), course));
+                        if (replica != null) {
+                            replica.writeAcknowledged(course.getId(), course.getUpdatedAt());
+                        }
+                    }
+                    for (int i = 0; i < createdCount; i++) {
+                        counter.increment();
+                    }
+                    return courses;
+                });
+    }
+
+    // Deletes up to 500 documents in a single atomic WriteBatch commit
+    @Override
+    public CompletableFuture<Void> deleteAllById(List<String> ids) {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        WriteBatch batch = firestore.batch();
+        ids.forEach(id -> batch.delete(collection.document(id)));
+
+        return writeBehind.discard(ids)
+                .thenCompose(flushed -> apiFutureToCompletableFuture("deleteAllById", batch::commit))
+                .thenApply(writeResults -> {
+                    // Every write in a batch commits at the same time
+                    Timestamp committedAt = writeResults.get(0).getUpdateTime();
+                    ids.forEach(id -> {
+                        counter.decrement();
+                        cache.evict(id);
+                        staleStore.evict("findById", id);
+                        eventPublisher.publishEvent(DocumentChangedEvent.deleted(COLLECTION_NAME, id, committedAt));
+                        if (replica != null) {
+                            replica.deleteAcknowledged(id, committedAt);
+                        }
+                    });
+                    return null;
+                });
+    }
+
+    // Reads all requested documents in one getAll round trip; missing ids are absent from the map
+    @Override
+    public CompletableFuture<Map<String, Course>> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        if (replica != null && ids.stream().allMatch(replica::canServe)) {
+            Map<String, Course> found = new HashMap<>();
+            ids.forEach(id -> {
+                Course course = replica.index().get(id);
+                if (course != null) {
+                    found.put(id, course);
+                }
+            });
+            return CompletableFuture.completedFuture(found);
+        }
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        DocumentReference[] docRefs = ids.stream()
+                .distinct()
+                .map(collection::document)
+                .toArray(DocumentReference[]::new);
+        return apiFutureToCompletableFuture("findAllById", () -> firestore.getAll(docRefs))
+                .thenApply(snapshots -> snapshots.stream()
+                        .filter(DocumentSnapshot::exists)
+                        .collect(Collectors.toMap(DocumentSnapshot::getId, doc -> doc.toObject(Course.class))));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findByLecturerId(String lecturerId) {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(
+                    findInReplica(course -> lecturerId.equals(course.getLecturerId())));
+        }
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        Query query = collection.whereEqualTo("lecturerId", lecturerId);
+
+        return apiFutureToCompletableFuture("findByLecturerId", query::get)
+                .thenApply(querySnapshot ->
+                        querySnapshot.getDocuments().stream()
+                                .map(doc -> doc.toObject(Course.class))
+                                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<List<Course>> findByName(String name) {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(findInReplica(course -> name.equals(course.getName())));
+        }
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        Query query = collection.whereEqualTo("name", name);
+
+        return apiFutureToCompletableFuture("findByName", query::get)
+                .thenApply(querySnapshot ->
+                        querySnapshot.getDocuments().stream()
+                                .map(doc -> doc.toObject(Course.class))
+                                .collect(Collectors.toList()));
+    }
+
+    // Firestore caps the values of a single 'in' filter, so larger sets are split into concurrent queries
+    @Override
+    public CompletableFuture<List<Course>> findAllByNameIn(Collection<String> names) {
+        if (names.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(findInReplica(course -> names.contains(course.getName())));
+        }
+        List<String> distinctNames = names.stream().distinct().collect(Collectors.toList());
+        List<CompletableFuture<List<Course>>> queries = new ArrayList<>();
+        for (int from = 0; from < distinctNames.size(); from += MAX_IN_VALUES) {
+            List<String> chunk = distinctNames.subList(from, Math.min(from + MAX_IN_VALUES, distinctNames.size()));
+            Query query = firestore.collection(COLLECTION_NAME).whereIn("name", chunk);
+            queries.add(apiFutureToCompletableFuture("findAllByNameIn", query::get)
+                    .thenApply(querySnapshot ->
+                            querySnapshot.getDocuments().stream()
+                                    .map(doc -> doc.toObject(Course.class))
+                                    .collect(Collectors.toList())));
+        }
+
+        return CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new))
+                .thenApply(v -> queries.stream()
+                        .flatMap(query -> query.join().stream())
+                        .collect(Collectors.toList()));
+    }
+
+    private List<Course> findInReplica(Predicate<Course> filter) {
+        return replica.index().findAll().stream()
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsById(String id) {
+        return findById(id)
+                .thenApply(Objects::nonNull);
+    }
+
+    @Override
+    public CompletableFuture<Fetched<Long>> count() {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(Fetched.fresh((long) replica.index().size()));
+        }
+        return counter.get();
+    }
+
+    // Server-side aggregation, billed per index entry batch instead of per document
+    private CompletableFuture<Fetched<Long>> countFromFirestore() {
+        return staleStore.read("count", Map.of(),
+                () -> singleFlight.execute("count", Map.of(), this::aggregateCount));
+    }
+
+    private CompletableFuture<Long> aggregateCount() {
+        return apiFutureToCompletableFuture("count", firestore.collection(COLLECTION_NAME).count()::get)
+                .thenApply(AggregateQuerySnapshot::getCount);
+    }
+    
+    @Override
+    public CompletableFuture<Fetched<List<Course>>> findAllWithPagination(PageRequest pageRequest) {
+        if (replicaCanSort(pageRequest)) {
+            return CompletableFuture.completedFuture(Fetched.fresh(replica.index().findPage(pageRequest)));
+        }
+        Object key = SingleFlight.pageKey(pageRequest);
+        return staleStore.read("findAllWithPagination", key,
+            () -> singleFlight.execute("findAllWithPagination", key, () -> queryPage(pageRequest)));
+    }
+
+    private CompletableFuture<List<Course>> queryPage(PageRequest pageRequest) {
+        Query collection = Projections.select(firestore.collection(COLLECTION_NAME), pageRequest.getFields());
+        
+        // Build query with sorting
+        Query query = collection.orderBy(pageRequest.getSortBy(), 
+            pageRequest.getSortDirection() == PageRequest.SortDirection.DESC ? 
+                Query.Direction.DESCENDING : Query.Direction.ASCENDING);
+        
+        // Apply pagination
+        query = query.offset(pageRequest.getPage() * pageRequest.getSize())
+                     .limit(pageRequest.getSize());
+        
+        return apiFutureToCompletableFuture("findAllWithPagination", query::get)
+            .thenApply(querySnapshot -> 
+                querySnapshot.getDocuments().stream()
+                    .map(doc -> doc.toObject(Course.class))
+                    .collect(Collectors.toList()));
+    }
+
+    @Override
+    public CompletableFuture<Fetched<CursorPage<Course>>> findAllWithCursor(PageRequest pageRequest) {
+        PageCursor cursor = null;
+        if (pageRequest.getCursor() != null) {
+            cursor = PageCursor.decode(pageRequest.getCursor());
+            cursor.verifyMatches(pageRequest);
+        }
+        PageCursor startCursor = cursor;
+        if (replicaCanSort(pageRequest)) {
+            return CompletableFuture.completedFuture(
+                    Fetched.fresh(replica.index().findCursorPage(pageRequest, startCursor)));
+        }
+        Object key = SingleFlight.pageKey(pageRequest);
+        return staleStore.read("findAllWithCursor", key,
+                () -> singleFlight.execute("findAllWithCursor", key,
+                        () -> queryCursorPage(pageRequest, startCursor)));
+    }
+
+    private CompletableFuture<CursorPage<Course>> queryCursorPage(PageRequest pageRequest, PageCursor startCursor) {
+        // The cursor is built from the sort field, so it is read even when not requested
+        Query projected = Projections.select(firestore.collection(COLLECTION_NAME), pageRequest.getFields(),
+                pageRequest.getSortBy());
+        Query query = CursorPage.applyCursor(projected, pageRequest, startCursor);
+        return apiFutureToCompletableFuture("findAllWithCursor", query::get)
+                .thenApply(querySnapshot ->
+                        CursorPage.fromDocuments(querySnapshot.getDocuments(), Course.class, pageRequest, startCursor));
+    }
+
+    private boolean replicaCanSort(PageRequest pageRequest) {
+        return replica != null && replica.isServing() && replica.index().isSortable(pageRequest.getSortBy());
+    }
+
+    // Issues a Firestore call through the shared limiter and converts its ApiFuture to a CompletableFuture,
+    // recording it under the given operation name
+    private <T> CompletableFuture<T> apiFutureToCompletableFuture(String operation, Supplier<ApiFuture<T>> call) {
+        return firestoreFutures.apiFutureToCompletableFuture(COLLECTION_NAME, operation, call);
+    }
+}
\ No newline at end of file
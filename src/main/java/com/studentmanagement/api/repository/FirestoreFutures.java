@@ -0,0 +1,196 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteResult;
+import com.studentmanagement.api.config.ExecutorConfig;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bridges Firestore ApiFutures into CompletableFutures for all repositories,
+ * completing them on the configured callback executor.
+ *
+ * Every call is also measured under its collection and operation name:
+ * {@code firestore.operation} times each call until Firestore answers (tagged with the outcome),
+ * {@code firestore.operations.in.flight} counts calls still waiting, and
+ * {@code firestore.documents.read} / {@code firestore.documents.written} count billed document
+ * reads and writes. Mapping the result happens in the repository's continuation and is not included.
+ *
+ * Calls are admitted by the shared {@link ConcurrencyLimiter} before they are issued. A shed call, or one
+ * Firestore rejects as overloaded or timed out, fails with {@link ServiceOverloadedException}.
+ * Reads configured for hedging go through {@link HedgedReads}; their timer shows what callers waited.
+ * Each operation also has a circuit breaker from {@link FirestoreCircuitBreakers}, checked first.
+ */
+@Component
+public class FirestoreFutures {
+
+    // Aggregation queries are billed one read per batch of up to this many index entries
+    private static final long INDEX_ENTRIES_PER_AGGREGATION_READ = 1_000;
+
+    private final Executor callbackExecutor;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrencyLimiter limiter;
+    private final HedgedReads hedgedReads;
+    private final FirestoreCircuitBreakers circuitBreakers;
+    private final Map<String, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    public FirestoreFutures(@Qualifier(ExecutorConfig.FIRESTORE_CALLBACK_EXECUTOR) Executor callbackExecutor,
+                            MeterRegistry meterRegistry, FirestoreProperties properties,
+                            FirestoreCircuitBreakers circuitBreakers) {
+        this.callbackExecutor = callbackExecutor;
+        this.meterRegistry = meterRegistry;
+        this.limiter = new ConcurrencyLimiter(properties.getLimiter(), meterRegistry);
+        this.hedgedReads = new HedgedReads(properties.getHedging(), limiter, meterRegistry);
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    public <T> CompletableFuture<T> apiFutureToCompletableFuture(String collection, String operation,
+                                                                 Supplier<ApiFuture<T>> call) {
+        FirestoreCircuitBreakers.Breaker breaker = circuitBreakers.forOperation(collection, operation);
+        if (breaker != null && !breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new ServiceOverloadedException(
+                    "Firestore is unavailable, retry later", breaker.circuit().retryAfter()));
+        }
+        ConcurrencyLimiter.Priority priority = ConcurrencyLimiter.priorityOf(operation);
+        if (!limiter.tryAcquire(priority)) {
+            if (breaker != null) {
+                breaker.circuit().onDropped();
+            }
+            return CompletableFuture.failedFuture(new ServiceOverloadedException(
+                    "Too many concurrent requests, retry later", limiter.retryAfter()));
+        }
+        ApiFuture<T> apiFuture;
+        try {
+            apiFuture = call.get();
+        } catch (RuntimeException e) {
+            limiter.onDropped();
+            if (breaker != null) {
+                breaker.circuit().onDropped();
+            }
+            throw e;
+        }
+        if (hedgedReads.appliesTo(operation)) {
+            apiFuture = hedgedReads.hedge(collection, operation, call, apiFuture);
+        }
+
+        OperationMeters operationMeters = meters.computeIfAbsent(collection + '/' + operation,
+                key -> newOperationMeters(collection, operation));
+        operationMeters.inFlight().incrementAndGet();
+        long started = System.nanoTime();
+        CompletableFuture<T> completableFuture = new CompletableFuture<>();
+
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                long elapsed = System.nanoTime() - started;
+                limiter.onSuccess(priority, elapsed);
+                if (breaker != null) {
+                    breaker.circuit().onResult(elapsed, false);
+                }
+                operationMeters.inFlight().decrementAndGet();
+                operationMeters.success().record(elapsed, TimeUnit.NANOSECONDS);
+                operationMeters.documentsRead().increment(documentsRead(result));
+                operationMeters.documentsWritten().increment(documentsWritten(result));
+                completableFuture.complete(result);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                long elapsed = System.nanoTime() - started;
+                limiter.onFailure(priority, elapsed, throwable);
+                if (breaker != null) {
+                    breaker.circuit().onResult(elapsed, !FirestoreCircuitBreakers.isClientError(throwable));
+                }
+                operationMeters.inFlight().decrementAndGet();
+                operationMeters.failure().record(elapsed, TimeUnit.NANOSECONDS);
+                completableFuture.completeExceptionally(ConcurrencyLimiter.isOverload(throwable)
+                        ? new ServiceOverloadedException("Firestore is overloaded, retry later",
+                                limiter.retryAfter(), throwable)
+                        : throwable);
+            }
+        }, callbackExecutor);
+
+        return completableFuture;
+    }
+
+    // A query that matches nothing is still billed one read
+    private static long documentsRead(Object result) {
+        if (result instanceof QuerySnapshot querySnapshot) {
+            return Math.max(querySnapshot.size(), 1);
+        }
+        if (result instanceof DocumentSnapshot) {
+            return 1;
+        }
+        if (result instanceof AggregateQuerySnapshot aggregate) {
+            return Math.max(1, (aggregate.getCount() + INDEX_ENTRIES_PER_AGGREGATION_READ - 1)
+                    / INDEX_ENTRIES_PER_AGGREGATION_READ);
+        }
+        if (result instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof DocumentSnapshot) {
+            return list.size();
+        }
+        return 0;
+    }
+
+    private static long documentsWritten(Object result) {
+        if (result instanceof WriteResult) {
+            return 1;
+        }
+        if (result instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof WriteResult) {
+            return list.size();
+        }
+        return 0;
+    }
+
+    private OperationMeters newOperationMeters(String collection, String operation) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("firestore.operations.in.flight", inFlight, AtomicInteger::get)
+                .description("Firestore calls issued and not yet answered")
+                .tags("collection", collection, "operation", operation)
+                .register(meterRegistry);
+        return new OperationMeters(
+                timer(collection, operation, "success"),
+                timer(collection, operation, "error"),
+                inFlight,
+                Counter.builder("firestore.documents.read")
+                        .description("Billed Firestore document reads")
+                        .tags("collection", collection, "operation", operation)
+                        .register(meterRegistry),
+                Counter.builder("firestore.documents.written")
+                        .description("Billed Firestore document writes, including deletes")
+                        .tags("collection", collection, "operation", operation)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(String collection, String operation, String outcome) {
+        return Timer.builder("firestore.operation")
+                .description("Time from issuing a Firestore call until it is answered")
+                .tags("collection", collection, "operation", operation, "outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record OperationMeters(Timer success, Timer failure, AtomicInteger inFlight,
+                                   Counter documentsRead, Counter documentsWritten) {
+    }
+}
@@ -0,0 +1,484 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.AggregateQuery;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.model.Student;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+@Repository
+@Profile("!embedded")
+@Slf4j
+public class FirestoreStudentRepository implements StudentRepository {
+    
+    private final Firestore firestore;
+    private final FirestoreFutures firestoreFutures;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CollectionCounter counter;
+    private final EntityCache<Fetched<Student>> cache;
+    private final CollectionReplica<Student> replica;
+    private final SingleFlight singleFlight;
+    private final StaleStore staleStore;
+    private final WriteBehindBuffer<Student> writeBehind;
+
+    public FirestoreStudentRepository(Firestore firestore, FirestoreFutures firestoreFutures,
+            FirestoreProperties properties, MeterRegistry meterRegistry, ApplicationEventPublisher eventPublisher) {
+        this.firestore = firestore;
+        this.firestoreFutures = firestoreFutures;
+        this.eventPublisher = eventPublisher;
+        this.counter = new CollectionCounter(COLLECTION_NAME, properties.getCount(), this::countFromFirestore);
+        this.cache = new EntityCache<>(COLLECTION_NAME, properties.getCache(), meterRegistry);
+        this.singleFlight = new SingleFlight(COLLECTION_NAME, properties.getCoalescing().isEnabled(), meterRegistry);
+        this.staleStore = new StaleStore(COLLECTION_NAME, properties.getStale(), meterRegistry);
+        // Flushes write copies, since commitBatch updates the documents it is given
+        this.writeBehind = new WriteBehindBuffer<>(COLLECTION_NAME, properties.getWriteBehind(),
+            pending -> ConcurrencyLimiter.internal(
+                () -> commitBatch(pending.stream().map(document -> document.toBuilder().build()).toList())),
+            meterRegistry);
+        this.replica = properties.getReplica().isEnabled()
+            ? new CollectionReplica<>(COLLECTION_NAME, firestore.collection(COLLECTION_NAME), Student.class,
+                Student::getUpdatedAt, new ReplicaIndex<>(Student::getId, SORT_FIELDS),
+                properties.getReplica(), meterRegistry)
+            : null;
+    }
+    
+    @PostConstruct
+    void startReplica() {
+        if (replica != null) {
+            replica.start();
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        writeBehind.close();
+        if (replica != null) {
+            replica.stop();
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Student> save(Student student) {
+        try {
+            log.debug("Repository: Saving student: {}", student.getName());
+            boolean isNew = student.getId() == null;
+            if (isNew) {
+                student.setId(UUID.randomUUID().toString());
+                log.debug("Repository: Generated ID: {}", student.getId());
+            }
+            if (!isNew && bufferUpdate(student)) {
+                return CompletableFuture.completedFuture(student);
+            }
+            student.setUpdatedAt(null);
+            
+            log.debug("Repository: Accessing Firestore collection...");
+            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(student.getId());
+            log.debug("Repository: Setting document...");
+            return apiFutureToCompletableFuture("save", () -> docRef.set(student))
+                .thenApply(writeResult -> {
+                    log.debug("Repository: Document saved successfully at: {}", writeResult.getUpdateTime());
+                    applyCommitTime(student, writeResult.getUpdateTime());
+                    if (isNew) {
+                        counter.increment();
+                    }
+                    cache.put(student.getId(), Fetched.fresh(student));
+                    staleStore.evict("findById", student.getId());
+                    eventPublisher.publishEvent(DocumentChangedEvent.saved(COLLECTION_NAME, student.getId(), student));
+                    if (replica != null) {
+                        replica.writeAcknowledged(student.getId(), student.getUpdatedAt());
+                    }
+                    return student;
+                });
+        } catch (Exception e) {
+            log.error("Repository: Error in save method: {}", e.getMessage(), e);
+            CompletableFuture<Student> failedFuture = new CompletableFuture<>();
+            failedFuture.completeExceptionally(e);
+            return failedFuture;
+        }
+    }
+    
+    // Server timestamps resolve to the commit time, so the entity now matches what a re-read would return
+    private void applyCommitTime(Student student, Timestamp commitTime) {
+        if (student.getCreatedAt() == null) {
+            student.setCreatedAt(commitTime);
+        }
+        student.setUpdatedAt(commitTime);
+    }
+
+    // Acknowledges an update once the write-behind buffer holds it; updatedAt is provisional until the flush commits
+    private boolean bufferUpdate(Student student) {
+        Student pending = student.toBuilder().updatedAt(Timestamp.now()).build();
+        if (!writeBehind.offer(student.getId(), pending)) {
+            return false;
+        }
+        student.setUpdatedAt(pending.getUpdatedAt());
+        cache.put(student.getId(), Fetched.fresh(pending));
+        staleStore.evict("findById", student.getId());
+        return true;
+    }
+    
+    @Override
+    public CompletableFuture<Fetched<Student>> fetchById(String id) {
+        Student pending = writeBehind.get(id);
+        if (pending != null) {
+            return CompletableFuture.completedFuture(Fetched.fresh(pending));
+        }
+        if (replica != null && replica.canServe(id)) {
+            return CompletableFuture.completedFuture(Fetched.fresh(replica.index().get(id)));
+        }
+        // A stale answer is not cached, so the next read tries Firestore again
+        return cache.get(id, this::loadById, fetched -> !fetched.isStale())
+            .thenApply(fetched -> fetched == null ? Fetched.fresh(null) : fetched);
+    }
+    
+    // A missing student loads as null, so the cache can tell it apart
+    private CompletableFuture<Fetched<Student>> loadById(String id) {
+        return staleStore.read("findById", id, () -> singleFlight.execute("findById", id, () -> readById(id)))
+            .thenApply(fetched -> fetched.value() == null ? null : fetched);
+    }
+    
+    private CompletableFuture<Student> readById(String id) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return apiFutureToCompletableFuture("findById", docRef::get)
+            .thenApply(documentSnapshot -> {
+                if (documentSnapshot.exists()) {
+                    return documentSnapshot.toObject(Student.class);
+                }
+                return null;
+            });
+    }
+    
+    @Override
+    public CompletableFuture<List<Student>> findAll() {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(replica.index().findAll());
+        }
+        return singleFlight.execute("findAll", Map.of(), this::queryAll);
+    }
+    
+    private CompletableFuture<List<Student>> queryAll() {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        return apiFutureToCompletableFuture("findAll", collection::get)
+            .thenApply(querySnapshot -> 
+                querySnapshot.getDocuments().stream()
+                    .map(doc -> doc.toObject(Student.class))
+                    .collect(Collectors.toList()));
+    }
+    
+    // Equality match on every given field, e.g. {city=Colombo, course=CS}, reading only the given fields (all when empty)
+    @Override
+    public CompletableFuture<List<Student>> findAllMatching(Map<String, String> filters, Set<String> fields) {
+        if (filters.isEmpty() && fields.isEmpty()) {
+            return findAll();
+        }
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(replica.index().findAll(StudentRepository.matcher(filters)));
+        }
+        return singleFlight.execute("findAllMatching", List.of(Map.copyOf(filters), Set.copyOf(fields)),
+            () -> queryMatching(filters, fields));
+    }
+    
+    private CompletableFuture<List<Student>> queryMatching(Map<String, String> filters, Set<String> fields) {
+        Query query = Projections.select(applyFilters(firestore.collection(COLLECTION_NAME), filters), fields);
+        return apiFutureToCompletableFuture("findAllMatching", query::get)
+            .thenApply(querySnapshot -> 
+                querySnapshot.getDocuments().stream()
+                    .map(doc -> doc.toObject(Student.class))
+                    .collect(Collectors.toList()));
+    }
+    
+    // Students whose course field holds any of the given values (at most 30, Firestore's 'in' limit)
+    @Override
+    public CompletableFuture<List<Student>> findByCourseIn(Collection<String> courses) {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(
+                replica.index().findAll(student -> courses.contains(student.getCourse())));
+        }
+        List<String> values = courses.stream().distinct().collect(Collectors.toList());
+        Query query = firestore.collection(COLLECTION_NAME).whereIn("course", values);
+        
+        return apiFutureToCompletableFuture("findByCourseIn", query::get)
+            .thenApply(querySnapshot -> 
+                querySnapshot.getDocuments().stream()
+                    .map(doc -> doc.toObject(Student.class))
+                    .collect(Collectors.toList()));
+    }
+    
+    // Reads the next chunk in document id order; used to stream the collection without loading it whole
+    @Override
+    public CompletableFuture<List<Student>> findAllAfterId(String afterId, int limit) {
+        Query query = firestore.collection(COLLECTION_NAME)
+            .orderBy(FieldPath.documentId())
+            .limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+        return apiFutureToCompletableFuture("findAllAfterId", query::get)
+            .thenApply(querySnapshot -> 
+                querySnapshot.getDocuments().stream()
+                    .map(doc -> doc.toObject(Student.class))
+                    .collect(Collectors.toList()));
+    }
+    
+    @Override
+    public CompletableFuture<Void> deleteById(String id) {
+        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
+        return writeBehind.discard(List.of(id))
+            .thenCompose(flushed -> apiFutureToCompletableFuture("deleteById", docRef::delete))
+            .thenApply(writeResult -> {
+                counter.decrement();
+                cache.evict(id);
+                staleStore.evict("findById", id);
+                eventPublisher.publishEvent(
+                    DocumentChangedEvent.deleted(COLLECTION_NAME, id, writeResult.getUpdateTime()));
+                if (replica != null) {
+                    replica.deleteAcknowledged(id, writeResult.getUpdateTime());
+                }
+                return null;
+            });
+    }
+    
+    // Writes up to 500 students in a single atomic WriteBatch commit. Older buffered updates of the same ids
+    // are dropped first, so a later flush cannot overwrite the bulk write with them.
+    @Override
+    public CompletableFuture<List<Student>> saveAll(List<Student> students) {
+        List<String> ids = students.stream().map(Student::getId).filter(Objects::nonNull).toList();
+        return writeBehind.discard(ids)
+            .thenCompose(flushed -> commitBatch(students));
+    }
+
+    // The write-behind flush commits through here; updates buffered while it runs must stay pending
+    private CompletableFuture<List<Student>> commitBatch(List<Student> students) {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        WriteBatch batch = firestore.batch();
+        int created = 0;
+        for (Student student : students) {
+            if (student.getId() == null) {
+                student.setId(UUID.randomUUID().toString());
+                created++;
+            }
+            student.setUpdatedAt(null);
+            batch.set(collection.document(student.getId()), student);
+        }
+        int createdCount = created;
+
+        return apiFutureToCompletableFuture("saveAll", batch::commit)
+            .thenApply(writeResults -> {
+                for (int i = 0; i < students.size(); i++) {
+                    Student student = students.get(i);
+                    applyCommitTime(student, writeResults.get(i).getUpdateTime());
+                    cache.put(student.getId(), Fetched.fresh(student));
+                    staleStore.evict("findById", student.getId());
+                    eventPublisher.publishEvent(DocumentChangedEvent.saved(COLLECTION_NAME, student.getId(), student));
+                    if (replica != null) {
+                        replica.writeAcknowledged(student.getId(), student.getUpdatedAt());
+                    }
+                }
+                for (int i = 0; i < createdCount; i++) {
+                    counter.increment();
+                }
+                return students;
+            });
+    }
+
+    // Deletes up to 500 documents in a single atomic WriteBatch commit
+    @Override
+    public CompletableFuture<Void> deleteAllById(List<String> ids) {
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        WriteBatch batch = firestore.batch();
+        ids.forEach(id -> batch.delete(collection.document(id)));
+
+        return writeBehind.discard(ids)
+            .thenCompose(flushed -> apiFutureToCompletableFuture("deleteAllById", batch::commit))
+            .thenApply(writeResults -> {
+                // Every write in a batch commits at the same time
+                Timestamp committedAt = writeResults.get(0).getUpdateTime();
+                ids.forEach(id -> {
+                    counter.decrement();
+                    cache.evict(id);
+                    staleStore.evict("findById", id);
+                    eventPublisher.publishEvent(DocumentChangedEvent.deleted(COLLECTION_NAME, id, committedAt));
+                    if (replica != null) {
+                        replica.deleteAcknowledged(id, committedAt);
+                    }
+                });
+                return null;
+            });
+    }
+
+    // Reads all requested documents in one getAll round trip; missing ids are absent from the map
+    @Override
+    public CompletableFuture<Map<String, Student>> findAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        if (replica != null && ids.stream().allMatch(replica::canServe)) {
+            Map<String, Student> found = new HashMap<>();
+            ids.forEach(id -> {
+                Student student = replica.index().get(id);
+                if (student != null) {
+                    found.put(id, student);
+                }
+            });
+            return CompletableFuture.completedFuture(found);
+        }
+        CollectionReference collection = firestore.collection(COLLECTION_NAME);
+        DocumentReference[] docRefs = ids.stream()
+            .distinct()
+            .map(collection::document)
+            .toArray(DocumentReference[]::new);
+        return apiFutureToCompletableFuture("findAllById", () -> firestore.getAll(docRefs))
+            .thenApply(snapshots -> snapshots.stream()
+                .filter(DocumentSnapshot::exists)
+                .collect(Collectors.toMap(DocumentSnapshot::getId, doc -> doc.toObject(Student.class))));
+    }
+
+    @Override
+    public CompletableFuture<Fetched<List<Student>>> findAllWithPagination(PageRequest pageRequest) {
+        if (replicaCanSort(pageRequest)) {
+            return CompletableFuture.completedFuture(Fetched.fresh(
+                replica.index().findPage(pageRequest, StudentRepository.matcher(pageRequest.getFilters()))));
+        }
+        Object key = SingleFlight.pageKey(pageRequest);
+        return staleStore.read("findAllWithPagination", key,
+            () -> singleFlight.execute("findAllWithPagination", key, () -> queryPage(pageRequest)));
+    }
+    
+    private CompletableFuture<List<Student>> queryPage(PageRequest pageRequest) {
+        Query filtered = Projections.select(
+            applyFilters(firestore.collection(COLLECTION_NAME), pageRequest.getFilters()), pageRequest.getFields());
+        
+        // Build query with sorting
+        Query query = filtered.orderBy(pageRequest.getSortBy(), 
+            pageRequest.getSortDirection() == PageRequest.SortDirection.DESC ? 
+                Query.Direction.DESCENDING : Query.Direction.ASCENDING);
+        
+        // Apply pagination
+        query = query.offset(pageRequest.getPage() * pageRequest.getSize())
+                     .limit(pageRequest.getSize());
+        
+        return apiFutureToCompletableFuture("findAllWithPagination", query::get)
+            .thenApply(querySnapshot -> 
+                querySnapshot.getDocuments().stream()
+                    .map(doc -> doc.toObject(Student.class))
+                    .collect(Collectors.toList()));
+    }
+    
+    @Override
+    public CompletableFuture<Fetched<CursorPage<Student>>> findAllWithCursor(PageRequest pageRequest) {
+        PageCursor cursor = null;
+        if (pageRequest.getCursor() != null) {
+            cursor = PageCursor.decode(pageRequest.getCursor());
+            cursor.verifyMatches(pageRequest);
+        }
+        PageCursor startCursor = cursor;
+        if (replicaCanSort(pageRequest)) {
+            return CompletableFuture.completedFuture(Fetched.fresh(
+                replica.index().findCursorPage(pageRequest, startCursor,
+                    StudentRepository.matcher(pageRequest.getFilters()))));
+        }
+        Object key = SingleFlight.pageKey(pageRequest);
+        return staleStore.read("findAllWithCursor", key,
+            () -> singleFlight.execute("findAllWithCursor", key, () -> queryCursorPage(pageRequest, startCursor)));
+    }
+    
+    private CompletableFuture<CursorPage<Student>> queryCursorPage(PageRequest pageRequest, PageCursor startCursor) {
+        // The cursor is built from the sort field, so it is read even when not requested
+        Query filtered = Projections.select(
+            applyFilters(firestore.collection(COLLECTION_NAME), pageRequest.getFilters()), pageRequest.getFields(),
+            pageRequest.getSortBy());
+        Query query = CursorPage.applyCursor(filtered, pageRequest, startCursor);
+        return apiFutureToCompletableFuture("findAllWithCursor", query::get)
+            .thenApply(querySnapshot -> 
+                CursorPage.fromDocuments(querySnapshot.getDocuments(), Student.class, pageRequest, startCursor));
+    }
+    
+    @Override
+    public CompletableFuture<Fetched<Long>> count() {
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(Fetched.fresh((long) replica.index().size()));
+        }
+        return counter.get();
+    }
+    
+    // Unfiltered counts use the collection counter; filtered ones run an aggregation over the match
+    @Override
+    public CompletableFuture<Fetched<Long>> count(Map<String, String> filters) {
+        if (filters.isEmpty()) {
+            return count();
+        }
+        if (replica != null && replica.isServing()) {
+            return CompletableFuture.completedFuture(
+                Fetched.fresh(replica.index().count(StudentRepository.matcher(filters))));
+        }
+        Map<String, String> key = Map.copyOf(filters);
+        return staleStore.read("countMatching", key,
+            () -> singleFlight.execute("countMatching", key, () -> aggregateCount(filters)));
+    }
+    
+    private CompletableFuture<Long> aggregateCount(Map<String, String> filters) {
+        AggregateQuery query = applyFilters(firestore.collection(COLLECTION_NAME), filters).count();
+        
+        return apiFutureToCompletableFuture("countMatching", query::get)
+            .thenApply(AggregateQuerySnapshot::getCount);
+    }
+    
+    // Server-side aggregation, billed per index entry batch instead of per document
+    private CompletableFuture<Fetched<Long>> countFromFirestore() {
+        return staleStore.read("count", Map.of(),
+            () -> singleFlight.execute("count", Map.of(), this::aggregateCount));
+    }
+    
+    private CompletableFuture<Long> aggregateCount() {
+        return apiFutureToCompletableFuture("count", firestore.collection(COLLECTION_NAME).count()::get)
+            .thenApply(AggregateQuerySnapshot::getCount);
+    }
+    
+    private Query applyFilters(Query query, Map<String, String> filters) {
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            StudentRepository.checkFilterable(filter.getKey());
+            query = query.whereEqualTo(filter.getKey(), filter.getValue());
+        }
+        return query;
+    }
+    
+    private boolean replicaCanSort(PageRequest pageRequest) {
+        return replica != null && replica.isServing() && replica.index().isSortable(pageRequest.getSortBy());
+    }
+    
+    // Issues a Firestore call through the shared limiter and converts its ApiFuture to a CompletableFuture,
+    // recording it under the given operation name
+    private <T> CompletableFuture<T> apiFutureToCompletableFuture(String operation, Supplier<ApiFuture<T>> call) {
+        return firestoreFutures.apiFutureToCompletableFuture(COLLECTION_NAME, operation, call);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,272 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.SettableApiFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second copy of a slow idempotent read and takes whichever answers first.
+ *
+ * The hedge is sent once the first attempt has been running longer than the configured percentile of
+ * recent first-attempt latencies for that operation (clamped to {@code minDelay..maxDelay}). The first
+ * successful answer completes the call and the other attempt is cancelled; the call only fails once every
+ * attempt has failed. Every call earns {@code budget} of a hedge, so hedges add at most that share of
+ * extra reads; hedges also need a free slot in the {@link ConcurrencyLimiter}.
+ *
+ * {@code firestore.hedge.requests} counts hedges {@code sent}, {@code won} and {@code skipped},
+ * {@code firestore.hedge.delay} is the current delay, and {@code firestore.hedge.primary} times first
+ * attempts (cancelled ones up to the moment they were cancelled, so its p99 is a lower bound for
+ * the p99 without hedging).
+ */
+public class HedgedReads {
+
+    private static final int WINDOW_SIZE = 1024;
+    private static final int MIN_SAMPLES = 32;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MILLIS_PER_HEDGE = 1_000;
+    private static final long MAX_BUDGET_MILLIS = 10 * MILLIS_PER_HEDGE;
+
+    private final FirestoreProperties.Hedging properties;
+    private final ConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler scheduler;
+    private final Map<String, OperationState> operations = new ConcurrentHashMap<>();
+    // Hedges that may still be sent, in thousandths
+    private final AtomicLong budgetMillis = new AtomicLong(MAX_BUDGET_MILLIS);
+
+    public HedgedReads(FirestoreProperties.Hedging properties, ConcurrencyLimiter limiter,
+                       MeterRegistry meterRegistry) {
+        this(properties, limiter, meterRegistry, (task, delayNanos) ->
+                CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(task));
+    }
+
+    HedgedReads(FirestoreProperties.Hedging properties, ConcurrencyLimiter limiter, MeterRegistry meterRegistry,
+                Scheduler scheduler) {
+        this.properties = properties;
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = scheduler;
+    }
+
+    public boolean appliesTo(String operation) {
+        return properties.isEnabled() && properties.getOperations().contains(operation);
+    }
+
+    // Wraps an already issued first attempt; call issues the same read again if a hedge is sent
+    public <T> ApiFuture<T> hedge(String collection, String operation, Supplier<ApiFuture<T>> call,
+                                  ApiFuture<T> primary) {
+        OperationState state = operations.computeIfAbsent(collection + '/' + operation,
+                key -> new OperationState(collection, operation));
+        earnBudget();
+
+        // The internal marker is thread-local, so it is read here rather than on the thread that sends the hedge
+        Attempts<T> attempts = new Attempts<>(state, ConcurrencyLimiter.priorityOf(operation));
+        attempts.add(primary, true);
+        scheduler.schedule(() -> sendHedge(state, attempts, call), state.delayNanos());
+        return attempts.result;
+    }
+
+    private <T> void sendHedge(OperationState state, Attempts<T> attempts, Supplier<ApiFuture<T>> call) {
+        if (attempts.result.isDone()) {
+            return;
+        }
+        ConcurrencyLimiter.Priority priority = attempts.priority;
+        if (!takeBudget()) {
+            state.skipped.increment();
+            return;
+        }
+        if (!limiter.tryAcquire(priority)) {
+            state.skipped.increment();
+            return;
+        }
+        ApiFuture<T> hedge;
+        long started = System.nanoTime();
+        try {
+            hedge = priority == ConcurrencyLimiter.Priority.INTERNAL ? ConcurrencyLimiter.internal(call) : call.get();
+        } catch (RuntimeException e) {
+            limiter.onDropped();
+            return;
+        }
+        state.sent.increment();
+        hedge.addListener(() -> {
+            long elapsed = System.nanoTime() - started;
+            try {
+                hedge.get();
+                limiter.onSuccess(priority, elapsed);
+            } catch (ExecutionException e) {
+                limiter.onFailure(priority, elapsed, e.getCause());
+            } catch (CancellationException | InterruptedException e) {
+                // Lost to the first attempt; its latency says nothing about Firestore
+                limiter.onDropped();
+            }
+        }, MoreExecutors.directExecutor());
+        attempts.add(hedge, false);
+    }
+
+    private void earnBudget() {
+        long earned = Math.round(properties.getBudget() * MILLIS_PER_HEDGE);
+        budgetMillis.getAndUpdate(budget -> Math.min(MAX_BUDGET_MILLIS, budget + earned));
+    }
+
+    private boolean takeBudget() {
+        while (true) {
+            long budget = budgetMillis.get();
+            if (budget < MILLIS_PER_HEDGE) {
+                return false;
+            }
+            if (budgetMillis.compareAndSet(budget, budget - MILLIS_PER_HEDGE)) {
+                return true;
+            }
+        }
+    }
+
+    // Runs the hedge once the delay has passed; tests supply one they advance by hand
+    @FunctionalInterface
+    interface Scheduler {
+        void schedule(Runnable task, long delayNanos);
+    }
+
+    private static final class Attempts<T> {
+
+        private final SettableApiFuture<T> result = SettableApiFuture.create();
+        private final Queue<ApiFuture<T>> attempts = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final OperationState state;
+        private final ConcurrencyLimiter.Priority priority;
+
+        private Attempts(OperationState state, ConcurrencyLimiter.Priority priority) {
+            this.state = state;
+            this.priority = priority;
+        }
+
+        void add(ApiFuture<T> attempt, boolean primary) {
+            outstanding.incrementAndGet();
+            attempts.add(attempt);
+            long started = System.nanoTime();
+            attempt.addListener(() -> onDone(attempt, primary, started), MoreExecutors.directExecutor());
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+        }
+
+        private void onDone(ApiFuture<T> attempt, boolean primary, long started) {
+            if (primary) {
+                state.recordPrimary(System.nanoTime() - started);
+            }
+            T value;
+            try {
+                value = attempt.get();
+            } catch (ExecutionException e) {
+                failed(e.getCause());
+                return;
+            } catch (CancellationException | InterruptedException e) {
+                failed(e);
+                return;
+            }
+            if (result.set(value)) {
+                if (!primary) {
+                    state.won.increment();
+                }
+                attempts.forEach(other -> other.cancel(true));
+            }
+            outstanding.decrementAndGet();
+        }
+
+        // The call fails with the last failure once no attempt is left that could still succeed
+        private void failed(Throwable failure) {
+            if (outstanding.decrementAndGet() == 0) {
+                result.setException(failure);
+            }
+        }
+    }
+
+    private final class OperationState {
+
+        private final Counter sent;
+        private final Counter won;
+        private final Counter skipped;
+        private final Timer primaryTimer;
+        private final AtomicLongArray window = new AtomicLongArray(WINDOW_SIZE);
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicLong nextRefresh = new AtomicLong(System.nanoTime());
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long delayNanos;
+
+        private OperationState(String collection, String operation) {
+            this.delayNanos = properties.getMaxDelay().toNanos();
+            this.sent = counter(collection, operation, "sent");
+            this.won = counter(collection, operation, "won");
+            this.skipped = counter(collection, operation, "skipped");
+            this.primaryTimer = Timer.builder("firestore.hedge.primary")
+                    .description("Time until the first attempt of a hedged read answered or was cancelled")
+                    .tags("collection", collection, "operation", operation)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(meterRegistry);
+            TimeGauge.builder("firestore.hedge.delay", this, TimeUnit.NANOSECONDS, state -> state.delayNanos)
+                    .description("How long a read runs before a hedge is sent")
+                    .tags("collection", collection, "operation", operation)
+                    .register(meterRegistry);
+        }
+
+        void recordPrimary(long nanos) {
+            primaryTimer.record(nanos, TimeUnit.NANOSECONDS);
+            window.set((int) (samples.getAndIncrement() % WINDOW_SIZE), nanos);
+        }
+
+        long delayNanos() {
+            long now = System.nanoTime();
+            if (now - nextRefresh.get() >= 0 && refreshing.compareAndSet(false, true)) {
+                try {
+                    nextRefresh.set(now + DELAY_REFRESH_NANOS);
+                    refreshDelay();
+                } finally {
+                    refreshing.set(false);
+                }
+            }
+            return delayNanos;
+        }
+
+        // Until enough latencies are seen the delay stays at maxDelay
+        private void refreshDelay() {
+            int count = (int) Math.min(samples.get(), WINDOW_SIZE);
+            if (count < MIN_SAMPLES) {
+                return;
+            }
+            long[] latencies = new long[count];
+            for (int i = 0; i < count; i++) {
+                latencies[i] = window.get(i);
+            }
+            Arrays.sort(latencies);
+            long percentile = latencies[Math.min(count - 1, (int) Math.ceil(properties.getPercentile() * count) - 1)];
+            delayNanos = Math.max(properties.getMinDelay().toNanos(),
+                    Math.min(properties.getMaxDelay().toNanos(), percentile));
+        }
+
+        private Counter counter(String collection, String operation, String result) {
+            return Counter.builder("firestore.hedge.requests")
+                    .description("Hedged reads sent, won by the hedge, or skipped")
+                    .tags("collection", collection, "operation", operation, "result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.firestore.Query;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Firestore field projections for sparse reads.
+ */
+final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * Restricts the query to the given fields; an empty set reads whole documents.
+     * The id is always read because entities take it from the document body, and callers add
+     * any field they need themselves, such as the sort field a cursor is built from.
+     */
+    static Query select(Query query, Set<String> fields, String... required) {
+        if (fields == null || fields.isEmpty()) {
+            return query;
+        }
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add("id");
+        selected.addAll(List.of(required));
+        return query.select(selected.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,245 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.exception.InvalidQueryException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of a collection: a hash map by id plus one sorted set per sortable field.
+ *
+ * Sorted entries are ordered by (field value, id), the same order Firestore uses for
+ * orderBy(field).orderBy(documentId), so offset and cursor pages match what the query would return.
+ * As in Firestore, a null value sorts before every other value (entities are stored with every field,
+ * so a null is a stored value rather than a missing field), and strings and ids compare by their UTF-8
+ * bytes, which is code point order rather than Java's UTF-16 order.
+ * Reads never lock; writers are serialised so an entity is never indexed under two values.
+ */
+public class ReplicaIndex<T> {
+
+    private final Function<T, String> idOf;
+    private final Map<String, Function<T, ? extends Comparable<?>>> sortFields;
+    private final Map<String, Entry<T>> byId = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentSkipListSet<Key>> sorted = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ReplicaIndex(Function<T, String> idOf, Map<String, Function<T, ? extends Comparable<?>>> sortFields) {
+        this.idOf = idOf;
+        this.sortFields = sortFields;
+        sortFields.keySet().forEach(field -> sorted.put(field, new ConcurrentSkipListSet<>()));
+    }
+
+    public void put(T entity) {
+        writeLock.lock();
+        try {
+            String id = idOf.apply(entity);
+            Map<String, Key> keys = new HashMap<>();
+            sortFields.forEach((field, valueOf) -> keys.put(field, key(valueOf, entity, id)));
+            Entry<T> previous = byId.put(id, new Entry<>(entity, keys));
+
+            // Keys are remembered per entry, so a caller mutating an entity cannot orphan an index entry
+            sortFields.keySet().forEach(field -> {
+                Key oldKey = previous == null ? null : previous.keys().get(field);
+                Key newKey = keys.get(field);
+                if (Objects.equals(oldKey, newKey)) {
+                    return;
+                }
+                NavigableSet<Key> index = sorted.get(field);
+                index.add(newKey);
+                if (oldKey != null) {
+                    index.remove(oldKey);
+                }
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(String id) {
+        writeLock.lock();
+        try {
+            Entry<T> previous = byId.remove(id);
+            if (previous != null) {
+                previous.keys().forEach((field, key) -> sorted.get(field).remove(key));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Swaps in a full snapshot, dropping anything that is no longer present
+    public void replaceAll(Collection<T> entities) {
+        writeLock.lock();
+        try {
+            byId.clear();
+            sorted.values().forEach(Collection::clear);
+            entities.forEach(this::put);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public T get(String id) {
+        Entry<T> entry = byId.get(id);
+        return entry == null ? null : entry.entity();
+    }
+
+    public List<T> findAll() {
+        return byId.values().stream()
+                .map(Entry::entity)
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public boolean isSortable(String field) {
+        return sorted.containsKey(field);
+    }
+
+    public List<T> findAll(Predicate<T> filter) {
+        return byId.values().stream()
+                .map(Entry::entity)
+                .filter(filter)
+                .collect(Collectors.toList());
+    }
+
+    public long count(Predicate<T> filter) {
+        return byId.values().stream()
+                .map(Entry::entity)
+                .filter(filter)
+                .count();
+    }
+
+    public List<T> findPage(PageRequest pageRequest) {
+        return findPage(pageRequest, entity -> true);
+    }
+
+    // Filters are applied while walking the sort index, so offset counts matching entities only
+    public List<T> findPage(PageRequest pageRequest, Predicate<T> filter) {
+        Iterator<Key> keys = ordered(pageRequest).iterator();
+        long toSkip = (long) pageRequest.getPage() * pageRequest.getSize();
+        while (toSkip > 0 && keys.hasNext()) {
+            T entity = get(keys.next().id());
+            if (entity != null && filter.test(entity)) {
+                toSkip--;
+            }
+        }
+        return resolve(keys, pageRequest.getSize(), filter);
+    }
+
+    public CursorPage<T> findCursorPage(PageRequest pageRequest, PageCursor cursor) {
+        return findCursorPage(pageRequest, cursor, entity -> true);
+    }
+
+    public CursorPage<T> findCursorPage(PageRequest pageRequest, PageCursor cursor, Predicate<T> filter) {
+        NavigableSet<Key> ordered = ordered(pageRequest);
+        int fetchSize = pageRequest.getSize() + 1;
+
+        List<T> fetched;
+        if (cursor == null) {
+            fetched = resolve(ordered.iterator(), fetchSize, filter);
+        } else {
+            Key boundary = new Key(comparable(cursor.getSortValue()), cursor.getId());
+            try {
+                if (cursor.getPosition() == PageCursor.Position.BEFORE) {
+                    fetched = resolve(ordered.headSet(boundary, false).descendingIterator(), fetchSize, filter);
+                    Collections.reverse(fetched);
+                } else {
+                    fetched = resolve(ordered.tailSet(boundary, false).iterator(), fetchSize, filter);
+                }
+            } catch (ClassCastException e) {
+                // The cursor carries a value of a different type than the field holds
+                throw new InvalidQueryException("Invalid cursor");
+            }
+        }
+
+        Function<T, ? extends Comparable<?>> valueOf = sortFields.get(pageRequest.getSortBy());
+        return CursorPage.fromWindow(fetched, Function.identity(), valueOf::apply, idOf, pageRequest, cursor);
+    }
+
+    // Up to limit entities in ascending field order following (value, id), as startAfter would return;
+    // from the first one when value is null
+    public List<T> findAfter(String field, Comparable<?> value, String id, int limit) {
+        NavigableSet<Key> index = sorted.get(field);
+        Iterator<Key> keys = value == null
+                ? index.iterator()
+                : index.tailSet(new Key(comparable(value), id), false).iterator();
+        return resolve(keys, limit, entity -> true);
+    }
+
+    private NavigableSet<Key> ordered(PageRequest pageRequest) {
+        NavigableSet<Key> index = sorted.get(pageRequest.getSortBy());
+        return pageRequest.getSortDirection() == PageRequest.SortDirection.DESC ? index.descendingSet() : index;
+    }
+
+    // An entity removed between reading its key and its value is skipped
+    private List<T> resolve(Iterator<Key> keys, int limit, Predicate<T> filter) {
+        List<T> result = new ArrayList<>(Math.min(limit, 1024));
+        while (result.size() < limit && keys.hasNext()) {
+            T entity = get(keys.next().id());
+            if (entity != null && filter.test(entity)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private Key key(Function<T, ? extends Comparable<?>> valueOf, T entity, String id) {
+        return new Key(comparable(valueOf.apply(entity)), id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Object value) {
+        return (Comparable<Object>) value;
+    }
+
+    private record Entry<T>(T entity, Map<String, Key> keys) {
+    }
+
+    private record Key(Comparable<Object> value, String id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byValue = compareValues(value, other.value);
+            return byValue != 0 ? byValue : compareUtf8(id, other.id);
+        }
+
+        private static int compareValues(Comparable<Object> a, Comparable<Object> b) {
+            if (a == null || b == null) {
+                return a == null ? (b == null ? 0 : -1) : 1;
+            }
+            if (a instanceof String first && b instanceof String second) {
+                return compareUtf8(first, second);
+            }
+            return a.compareTo(b);
+        }
+    }
+
+    // UTF-8 byte order is code point order; it differs from String.compareTo once surrogate pairs are involved
+    static int compareUtf8(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return Integer.compare(Character.codePointAt(a, i), Character.codePointAt(b, i));
+            }
+        }
+        return Integer.compare(a.length(), b.length());
+    }
+}
@@ -0,0 +1,92 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.dto.PageRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight Firestore read among identical concurrent calls for a single collection.
+ *
+ * The first caller for an operation and key runs the read; callers arriving before it completes
+ * get the same result or the same failure instead of issuing their own query. Nothing is kept once
+ * the read completes, so this never serves a result older than the request. Each caller receives
+ * its own dependent future, so cancelling one does not affect the others. Results are shared and
+ * must not be modified by callers.
+ *
+ * {@code firestore.single.flight} counts calls per operation, tagged {@code executed} or {@code joined}.
+ */
+public class SingleFlight {
+
+    private final String collectionName;
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public SingleFlight(String collectionName, boolean enabled, MeterRegistry meterRegistry) {
+        this.collectionName = collectionName;
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<V> execute(String operation, Object key, Supplier<CompletableFuture<V>> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        Key flightKey = new Key(operation, key);
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> existing = (CompletableFuture<V>) inFlight.putIfAbsent(flightKey, pending);
+        if (existing != null) {
+            counter(operation, "joined").increment();
+            return existing.copy();
+        }
+        counter(operation, "executed").increment();
+
+        CompletableFuture<V> result;
+        try {
+            result = read.get();
+        } catch (RuntimeException e) {
+            // Invalid queries fail synchronously; the caller sees the same exception it would without coalescing
+            inFlight.remove(flightKey, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((value, throwable) -> {
+            inFlight.remove(flightKey, pending);
+            if (throwable != null) {
+                pending.completeExceptionally(throwable);
+            } else {
+                pending.complete(value);
+            }
+        });
+        return pending.copy();
+    }
+
+    // Identity of a page query: two requests with equal keys read exactly the same documents
+    public static Object pageKey(PageRequest pageRequest) {
+        return new PageKey(pageRequest.getPage(), pageRequest.getSize(), pageRequest.getSortBy(),
+                pageRequest.getSortDirection(), pageRequest.getCursor(), Map.copyOf(pageRequest.getFilters()),
+                Set.copyOf(pageRequest.getFields()));
+    }
+
+    private Counter counter(String operation, String result) {
+        return counters.computeIfAbsent(operation + '/' + result, name -> Counter.builder("firestore.single.flight")
+                .description("Reads that ran against Firestore (executed) or shared an identical in-flight read (joined)")
+                .tags("collection", collectionName, "operation", operation, "result", result)
+                .register(meterRegistry));
+    }
+
+    private record Key(String operation, Object key) {
+    }
+
+    private record PageKey(int page, int size, String sortBy, PageRequest.SortDirection sortDirection,
+                           String cursor, Map<String, String> filters, Set<String> fields) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.studentmanagement.api.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.exception.InvalidQueryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Last known good result of each findById, page and count read of one collection.
+ *
+ * When a read fails (an open circuit, overload, a timeout or any other Firestore error) and a result
+ * for the same operation and key is stored, that result is returned instead and the read is retried in
+ * the background, at most once at a time per key. Invalid queries and other client errors still fail.
+ * Every result comes back as {@link Fetched}, carrying the time a stale result was fetched, so the
+ * caller can say it is stale.
+ * Stored results are shared and must not be modified by callers.
+ *
+ * {@code firestore.stale.served} counts stale results per operation.
+ */
+@Slf4j
+public class StaleStore {
+
+    private final String collectionName;
+    private final Cache<Key, Entry> entries;
+    private final MeterRegistry meterRegistry;
+    private final Set<Key> revalidating = ConcurrentHashMap.newKeySet();
+    private final Map<String, Counter> served = new ConcurrentHashMap<>();
+
+    public StaleStore(String collectionName, FirestoreProperties.Stale properties, MeterRegistry meterRegistry) {
+        this.collectionName = collectionName;
+        this.meterRegistry = meterRegistry;
+        this.entries = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getMaxAge())
+                        .build()
+                : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> CompletableFuture<Fetched<V>> read(String operation, Object key, Supplier<CompletableFuture<V>> read) {
+        if (entries == null) {
+            return read.get().thenApply(Fetched::fresh);
+        }
+        Key storeKey = new Key(operation, key);
+        return read.get().handle((value, throwable) -> {
+            if (throwable == null) {
+                entries.put(storeKey, new Entry(value, Instant.now()));
+                return CompletableFuture.completedFuture(Fetched.fresh(value));
+            }
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            boolean clientError = cause instanceof InvalidQueryException
+                    || FirestoreCircuitBreakers.isClientError(cause);
+            Entry stale = clientError ? null : entries.getIfPresent(storeKey);
+            if (stale == null) {
+                return CompletableFuture.<Fetched<V>>failedFuture(cause);
+            }
+            log.debug("Serving stale {}/{} from {} after: {}", collectionName, operation, stale.fetchedAt(),
+                    cause.toString());
+            counter(operation).increment();
+            revalidate(storeKey, read);
+            return CompletableFuture.completedFuture(new Fetched<>((V) stale.value(), stale.fetchedAt()));
+        }).thenCompose(Function.identity());
+    }
+
+    public void evict(String operation, Object key) {
+        if (entries != null) {
+            entries.invalidate(new Key(operation, key));
+        }
+    }
+
+    private <V> void revalidate(Key storeKey, Supplier<CompletableFuture<V>> read) {
+        if (!revalidating.add(storeKey)) {
+            return;
+        }
+        CompletableFuture<V> refresh;
+        try {
+            refresh = read.get();
+        } catch (RuntimeException e) {
+            revalidating.remove(storeKey);
+            return;
+        }
+        refresh.whenComplete((value, throwable) -> {
+            revalidating.remove(storeKey);
+            if (throwable == null) {
+                entries.put(storeKey, new Entry(value, Instant.now()));
+            }
+        });
+    }
+
+    private Counter counter(String operation) {
+        return served.computeIfAbsent(operation, name -> Counter.builder("firestore.stale.served")
+                .description("Reads answered with the last known good result because Firestore failed")
+                .tags("collection", collectionName, "operation", operation)
+                .register(meterRegistry));
+    }
+
+    private record Key(String operation, Object key) {
+    }
+
+    private record Entry(Object value, Instant fetchedAt) {
+    }
+}
@@ -1,141 +1,97 @@
 package com.studentmanagement.api.repository;
 
-import com.google.api.core.ApiFuture;
-import com.google.api.core.ApiFutureCallback;
-import com.google.api.core.ApiFutures;
-import com.google.cloud.firestore.CollectionReference;
-import com.google.cloud.firestore.DocumentReference;
-import com.google.cloud.firestore.DocumentSnapshot;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.Query;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.google.cloud.firestore.WriteResult;
-import com.google.cloud.Timestamp;
-import com.google.common.util.concurrent.MoreExecutors;
 import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.exception.InvalidQueryException;
 import com.studentmanagement.api.model.Student;
-import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-
-@Repository
-@RequiredArgsConstructor
-@Slf4j
-public class StudentRepository {
-    
-    private final Firestore firestore;
-    private static final String COLLECTION_NAME = "students";
-    
-    public CompletableFuture<String> save(Student student) {
-        try {
-            log.debug("Repository: Saving student: {}", student.getName());
-            if (student.getId() == null) {
-                student.setId(UUID.randomUUID().toString());
-                student.setCreatedAt(Timestamp.now());
-                log.debug("Repository: Generated ID: {}", student.getId());
-            }
-            student.setUpdatedAt(Timestamp.now());
-            
-            log.debug("Repository: Accessing Firestore collection...");
-            DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(student.getId());
-            log.debug("Repository: Setting document...");
-            ApiFuture<WriteResult> future = docRef.set(student);
-            
-            return apiFutureToCompletableFuture(future)
-                .thenApply(writeResult -> {
-                    log.debug("Repository: Document saved successfully at: {}", writeResult.getUpdateTime());
-                    return student.getId();
-                });
-        } catch (Exception e) {
-            log.error("Repository: Error in save method: {}", e.getMessage(), e);
-            CompletableFuture<String> failedFuture = new CompletableFuture<>();
-            failedFuture.completeExceptionally(e);
-            return failedFuture;
-        }
-    }
-    
-    public CompletableFuture<Student> findById(String id) {
-        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-        ApiFuture<DocumentSnapshot> future = docRef.get();
-        
-        return apiFutureToCompletableFuture(future)
-            .thenApply(documentSnapshot -> {
-                if (documentSnapshot.exists()) {
-                    return documentSnapshot.toObject(Student.class);
-                }
-                return null;
-            });
-    }
-    
-    public CompletableFuture<List<Student>> findAll() {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        ApiFuture<QuerySnapshot> future = collection.get();
-        
-        return apiFutureToCompletableFuture(future)
-            .thenApply(querySnapshot -> 
-                querySnapshot.getDocuments().stream()
-                    .map(doc -> doc.toObject(Student.class))
-                    .collect(Collectors.toList()));
-    }
-    
-    public CompletableFuture<Void> deleteById(String id) {
-        DocumentReference docRef = firestore.collection(COLLECTION_NAME).document(id);
-        ApiFuture<WriteResult> future = docRef.delete();
-        
-        return apiFutureToCompletableFuture(future)
-            .thenApply(writeResult -> null);
-    }
-    
-    public CompletableFuture<List<Student>> findAllWithPagination(PageRequest pageRequest) {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        
-        // Build query with sorting
-        Query query = collection.orderBy(pageRequest.getSortBy(), 
-            pageRequest.getSortDirection() == PageRequest.SortDirection.DESC ? 
-                Query.Direction.DESCENDING : Query.Direction.ASCENDING);
-        
-        // Apply pagination
-        query = query.offset(pageRequest.getPage() * pageRequest.getSize())
-                     .limit(pageRequest.getSize());
-        
-        ApiFuture<QuerySnapshot> future = query.get();
-        
-        return apiFutureToCompletableFuture(future)
-            .thenApply(querySnapshot -> 
-                querySnapshot.getDocuments().stream()
-                    .map(doc -> doc.toObject(Student.class))
-                    .collect(Collectors.toList()));
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Storage of students. {@link FirestoreStudentRepository} is used by default and
+ * {@link EmbeddedStudentRepository} under the {@code embedded} profile; both order, filter and page alike.
+ */
+public interface StudentRepository {
+
+    String COLLECTION_NAME = "students";
+
+    // Fields pages may be sorted by; in-memory indexes keep a sorted set for each
+    Map<String, Function<Student, ? extends Comparable<?>>> SORT_FIELDS = Map.of(
+        "name", Student::getName,
+        "title", Student::getTitle,
+        "city", Student::getCity,
+        "course", Student::getCourse,
+        "address", Student::getAddress,
+        "createdAt", Student::getCreatedAt,
+        "updatedAt", Student::getUpdatedAt);
+
+    // Fields that may be used as equality filters
+    Map<String, Function<Student, String>> FILTER_FIELDS = Map.of(
+        "city", Student::getCity,
+        "course", Student::getCourse);
+
+    Set<String> SORTABLE_FIELDS = SORT_FIELDS.keySet();
+    Set<String> FILTERABLE_FIELDS = FILTER_FIELDS.keySet();
+
+    // Fields a sparse fieldset may name
+    Set<String> FIELDS = Set.of(
+        "id", "title", "name", "address", "city", "course", "createdAt", "updatedAt");
+
+    // Creates the student when it has no id yet; createdAt/updatedAt are set to the write time
+    CompletableFuture<Student> save(Student student);
+
+    // Completes with null when there is no such student
+    default CompletableFuture<Student> findById(String id) {
+        return fetchById(id).thenApply(Fetched::value);
     }
-    
-    public CompletableFuture<Long> count() {
-        CollectionReference collection = firestore.collection(COLLECTION_NAME);
-        ApiFuture<QuerySnapshot> future = collection.get();
-        
-        return apiFutureToCompletableFuture(future)
-            .thenApply(querySnapshot -> (long) querySnapshot.getDocuments().size());
+
+    // As findById, but says whether the student was answered stale while Firestore was failing
+    CompletableFuture<Fetched<Student>> fetchById(String id);
+
+    CompletableFuture<List<Student>> findAll();
+
+    // Equality match on every given field, e.g. {city=Colombo, course=CS}, reading only the given fields (all when empty)
+    CompletableFuture<List<Student>> findAllMatching(Map<String, String> filters, Set<String> fields);
+
+    // Students whose course field holds any of the given values (at most 30)
+    CompletableFuture<List<Student>> findByCourseIn(Collection<String> courses);
+
+    // The next chunk in id order; used to stream the collection without loading it whole
+    CompletableFuture<List<Student>> findAllAfterId(String afterId, int limit);
+
+    CompletableFuture<Void> deleteById(String id);
+
+    // Writes up to 500 students atomically
+    CompletableFuture<List<Student>> saveAll(List<Student> students);
+
+    // Deletes up to 500 students atomically
+    CompletableFuture<Void> deleteAllById(List<String> ids);
+
+    // Missing ids are absent from the map
+    CompletableFuture<Map<String, Student>> findAllById(Collection<String> ids);
+
+    CompletableFuture<Fetched<List<Student>>> findAllWithPagination(PageRequest pageRequest);
+
+    CompletableFuture<Fetched<CursorPage<Student>>> findAllWithCursor(PageRequest pageRequest);
+
+    CompletableFuture<Fetched<Long>> count();
+
+    CompletableFuture<Fetched<Long>> count(Map<String, String> filters);
+
+    static Predicate<Student> matcher(Map<String, String> filters) {
+        filters.keySet().forEach(StudentRepository::checkFilterable);
+        return student -> filters.entrySet().stream()
+            .allMatch(filter -> filter.getValue().equals(FILTER_FIELDS.get(filter.getKey()).apply(student)));
     }
-    
-    // Utility method to convert ApiFuture to CompletableFuture
-    private <T> CompletableFuture<T> apiFutureToCompletableFuture(ApiFuture<T> apiFuture) {
-        CompletableFuture<T> completableFuture = new CompletableFuture<>();
-        
-        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
-            @Override
-            public void onSuccess(T result) {
-                completableFuture.complete(result);
-            }
-            
-            @Override
-            public void onFailure(Throwable throwable) {
-                completableFuture.completeExceptionally(throwable);
-            }
-        }, MoreExecutors.directExecutor());
-        
-        return completableFuture;
+
+    static void checkFilterable(String field) {
+        if (!FILTER_FIELDS.containsKey(field)) {
+            throw new InvalidQueryException("Filtering by '" + field + "' is not supported");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Holds the latest pending update of each document and writes them in batches every {@code flushInterval}.
+ *
+ * Updates to the same id before a flush replace each other, so only the last one is written. Pending
+ * updates stay readable through {@link #get} until their batch has committed; that is the only read that
+ * sees them. When {@code maxPending} documents are waiting, further documents are not buffered and the
+ * caller writes them directly. A failed batch stays pending and is retried on the next flush, up to
+ * {@code maxAttempts} times per update before it is dropped. Only one flush runs at a time, a discard
+ * never slips in between a flush issuing its writes and publishing them, and {@link #close} writes out
+ * whatever is left.
+ *
+ * {@code firestore.write.behind.pending} is the number of buffered documents;
+ * {@code firestore.write.behind} counts updates {@code buffered}, {@code coalesced} into a pending one,
+ * {@code bypassed} because the buffer was full, and documents {@code flushed}, {@code failed} or
+ * {@code dropped} after their last attempt.
+ */
+@Slf4j
+public class WriteBehindBuffer<T> {
+
+    private final String collectionName;
+    private final FirestoreProperties.WriteBehind properties;
+    private final Function<List<T>, CompletableFuture<?>> writer;
+    private final Map<String, T> pending = new ConcurrentHashMap<>();
+    // Failed flushes of the pending update of each id; a newer update starts again from zero
+    private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final Counter buffered;
+    private final Counter coalesced;
+    private final Counter bypassed;
+    private final Counter flushed;
+    private final Counter failed;
+    private final Counter dropped;
+    // Held while a flush issues its writes, and by discard; not synchronized, so virtual threads are not pinned
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile CompletableFuture<Void> flushing = CompletableFuture.completedFuture(null);
+
+    public WriteBehindBuffer(String collectionName, FirestoreProperties.WriteBehind properties,
+                             Function<List<T>, CompletableFuture<?>> writer, MeterRegistry meterRegistry) {
+        this.collectionName = collectionName;
+        this.properties = properties;
+        this.writer = writer;
+        this.buffered = counter(meterRegistry, "buffered");
+        this.coalesced = counter(meterRegistry, "coalesced");
+        this.bypassed = counter(meterRegistry, "bypassed");
+        this.flushed = counter(meterRegistry, "flushed");
+        this.failed = counter(meterRegistry, "failed");
+        this.dropped = counter(meterRegistry, "dropped");
+        Gauge.builder("firestore.write.behind.pending", pending, Map::size)
+                .description("Updates waiting to be written")
+                .tag("collection", collectionName)
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            long interval = properties.getFlushInterval().toMillis();
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name(collectionName + "-write-behind").factory());
+            scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    // False when the buffer is disabled or full; the caller then writes the document itself
+    public boolean offer(String id, T document) {
+        if (scheduler == null) {
+            return false;
+        }
+        if (pending.size() >= properties.getMaxPending() && !pending.containsKey(id)) {
+            bypassed.increment();
+            return false;
+        }
+        attempts.remove(id);
+        if (pending.put(id, document) == null) {
+            buffered.increment();
+        } else {
+            coalesced.increment();
+        }
+        return true;
+    }
+
+    public T get(String id) {
+        return scheduler == null ? null : pending.get(id);
+    }
+
+    // Drops pending updates of deleted or bulk-written documents; completes once a flush that may still write
+    // them is done.
+    // Takes the flush lock, so it never sees the previous flush while a new one is issuing writes.
+    public CompletableFuture<Void> discard(Collection<String> ids) {
+        if (scheduler == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        flushLock.lock();
+        try {
+            ids.forEach(id -> {
+                pending.remove(id);
+                attempts.remove(id);
+            });
+            return flushing.exceptionally(throwable -> null);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public CompletableFuture<Void> flush() {
+        flushLock.lock();
+        try {
+            if (!flushing.isDone() || pending.isEmpty()) {
+                return flushing;
+            }
+            List<Map.Entry<String, T>> entries = new ArrayList<>(Map.copyOf(pending).entrySet());
+            int batchSize = Math.max(1, Math.min(properties.getBatchSize(), 500));
+            List<CompletableFuture<?>> commits = new ArrayList<>();
+            for (int from = 0; from < entries.size(); from += batchSize) {
+                List<Map.Entry<String, T>> chunk = entries.subList(from, Math.min(from + batchSize, entries.size()));
+                CompletableFuture<?> commit;
+                try {
+                    commit = writer.apply(chunk.stream().map(Map.Entry::getValue).toList());
+                } catch (RuntimeException e) {
+                    commit = CompletableFuture.failedFuture(e);
+                }
+                commits.add(commit.whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        failed.increment(chunk.size());
+                        log.warn("Write-behind flush of {} {} failed, retrying on the next flush: {}",
+                                chunk.size(), collectionName, throwable.toString());
+                        chunk.forEach(this::failedAttempt);
+                        return;
+                    }
+                    flushed.increment(chunk.size());
+                    // Updates that arrived while the batch was in flight stay pending
+                    chunk.forEach(entry -> {
+                        if (pending.remove(entry.getKey(), entry.getValue())) {
+                            attempts.remove(entry.getKey());
+                        }
+                    });
+                }));
+            }
+            flushing = CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new));
+            return flushing;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void failedAttempt(Map.Entry<String, T> entry) {
+        if (pending.get(entry.getKey()) != entry.getValue()) {
+            // Replaced or discarded while the batch was in flight
+            return;
+        }
+        int failures = attempts.merge(entry.getKey(), 1, Integer::sum);
+        if (failures >= properties.getMaxAttempts() && pending.remove(entry.getKey(), entry.getValue())) {
+            attempts.remove(entry.getKey());
+            dropped.increment();
+            log.error("Dropping the buffered update of {}/{} after {} failed flushes",
+                    collectionName, entry.getKey(), failures);
+        }
+    }
+
+    // Stops the timer and writes out the remaining updates, giving up after shutdownTimeout
+    public void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        long deadline = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            try {
+                boolean written = flush().handle((ignored, throwable) -> throwable == null)
+                        .get(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (!written) {
+                    Thread.sleep(properties.getFlushInterval().toMillis());
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.error("Shutting down with {} unwritten {} updates", pending.size(), collectionName);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("firestore.write.behind")
+                .description("Updates buffered, coalesced or bypassed, and documents flushed, failed or dropped")
+                .tags("collection", collectionName, "result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.studentmanagement.api.service;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.exception.InvalidQueryException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Chunked execution shared by the bulk endpoints: splits the work into Firestore-sized chunks and
+ * keeps at most {@code parallelism} chunks in flight, each lane picking up the next chunk when done.
+ */
+final class BulkOperations {
+
+    private BulkOperations() {
+    }
+
+    // An item together with its position in the request array
+    record Slot<T>(int index, T value) {
+    }
+
+    static void checkSize(int size, FirestoreProperties.Bulk properties) {
+        if (size > properties.getMaxItems()) {
+            throw new InvalidQueryException("Bulk requests are limited to " + properties.getMaxItems() + " items");
+        }
+    }
+
+    static <I, R> CompletableFuture<List<R>> processInChunks(List<I> items, FirestoreProperties.Bulk properties,
+                                                            Function<List<I>, CompletableFuture<List<R>>> processor) {
+        int chunkSize = Math.max(1, Math.min(properties.getChunkSize(), 500));
+        List<List<I>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += chunkSize) {
+            chunks.add(items.subList(start, Math.min(start + chunkSize, items.size())));
+        }
+
+        AtomicReferenceArray<List<R>> chunkResults = new AtomicReferenceArray<>(chunks.size());
+        AtomicInteger nextChunk = new AtomicInteger();
+        int lanes = Math.min(Math.max(1, properties.getParallelism()), chunks.size());
+
+        CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int lane = 0; lane < lanes; lane++) {
+            running[lane] = runLane(chunks, chunkResults, nextChunk, processor);
+        }
+
+        return CompletableFuture.allOf(running).thenApply(v -> {
+            List<R> results = new ArrayList<>(items.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                results.addAll(chunkResults.get(i));
+            }
+            return results;
+        });
+    }
+
+    private static <I, R> CompletableFuture<Void> runLane(List<List<I>> chunks, AtomicReferenceArray<List<R>> chunkResults,
+                                                          AtomicInteger nextChunk,
+                                                          Function<List<I>, CompletableFuture<List<R>>> processor) {
+        int index = nextChunk.getAndIncrement();
+        if (index >= chunks.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return processor.apply(chunks.get(index))
+                .thenCompose(result -> {
+                    chunkResults.set(index, result);
+                    return runLane(chunks, chunkResults, nextChunk, processor);
+                });
+    }
+
+    // Message reported for every item of a chunk whose Firestore call failed
+    static String describe(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,90 @@
+package com.studentmanagement.api.service;
+
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.repository.CourseRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Request-scoped memo resolving the free-form Student.course values to courses.
+ *
+ * A value is first treated as a course id; values that match no id, or cannot be a document id at all
+ * (e.g. a name containing '/'), are looked up by course name.
+ * Each {@link #resolve} costs at most one getAll round trip plus one name query, whatever the
+ * number of students, and values resolved earlier in the same request (found or not) are not read again.
+ */
+public class CourseLookup {
+
+    private final CourseRepository courseRepository;
+    private final Function<Course, CourseResponseDto> mapper;
+    private final Map<String, Optional<CourseResponseDto>> resolved = new ConcurrentHashMap<>();
+
+    CourseLookup(CourseRepository courseRepository, Function<Course, CourseResponseDto> mapper) {
+        this.courseRepository = courseRepository;
+        this.mapper = mapper;
+    }
+
+    // Returns the course for each reference that resolved; unresolved references are absent
+    public CompletableFuture<Map<String, CourseResponseDto>> resolve(Collection<String> references) {
+        Set<String> pending = references.stream()
+                .filter(Objects::nonNull)
+                .filter(reference -> !resolved.containsKey(reference))
+                .collect(Collectors.toSet());
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(collect(references));
+        }
+
+        Set<String> ids = pending.stream()
+                .filter(CourseLookup::isDocumentId)
+                .collect(Collectors.toSet());
+        return courseRepository.findAllById(ids)
+                .thenCompose(byId -> {
+                    byId.forEach((id, course) -> resolved.put(id, Optional.of(mapper.apply(course))));
+                    Set<String> names = pending.stream()
+                            .filter(reference -> !byId.containsKey(reference))
+                            .collect(Collectors.toSet());
+                    return courseRepository.findAllByNameIn(names);
+                })
+                .thenApply(byName -> {
+                    // Names are not unique; the course with the lowest id wins so results are stable
+                    byName.stream()
+                            .sorted(Comparator.comparing(Course::getId))
+                            .forEach(course -> resolved.putIfAbsent(course.getName(),
+                                    Optional.of(mapper.apply(course))));
+                    pending.forEach(reference -> resolved.putIfAbsent(reference, Optional.empty()));
+                    return collect(references);
+                });
+    }
+
+    // Firestore rejects the whole getAll for an id with a '/', "." or "..", a __reserved__ name or over 1500 bytes
+    static boolean isDocumentId(String reference) {
+        return !reference.isEmpty()
+                && reference.indexOf('/') < 0
+                && !reference.equals(".")
+                && !reference.equals("..")
+                && !(reference.startsWith("__") && reference.endsWith("__"))
+                && reference.getBytes(StandardCharsets.UTF_8).length <= 1500;
+    }
+
+    private Map<String, CourseResponseDto> collect(Collection<String> references) {
+        Map<String, CourseResponseDto> courses = new HashMap<>();
+        references.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(reference -> resolved.getOrDefault(reference, Optional.empty())
+                        .ifPresent(course -> courses.put(reference, course)));
+        return courses;
+    }
+}
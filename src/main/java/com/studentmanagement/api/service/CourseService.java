@@ -1,17 +1,34 @@
 package com.studentmanagement.api.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.BulkItemResult;
+import com.studentmanagement.api.dto.BulkResponse;
+import com.studentmanagement.api.dto.CourseBulkUpdateDto;
 import com.studentmanagement.api.dto.CourseRequestDto;
 import com.studentmanagement.api.dto.CourseResponseDto;
 import com.studentmanagement.api.dto.PageRequest;
 import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.dto.SparseCourseResponseDto;
 import com.studentmanagement.api.exception.CourseNotFoundException;
+import com.studentmanagement.api.exception.InvalidQueryException;
 import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.repository.ConcurrencyLimiter;
 import com.studentmanagement.api.repository.CourseRepository;
+import com.studentmanagement.api.repository.CursorPage;
+import com.studentmanagement.api.repository.Fetched;
+import com.studentmanagement.api.service.BulkOperations.Slot;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +38,8 @@ import lombok.extern.slf4j.Slf4j;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final Validator validator;
+    private final FirestoreProperties properties;
 
     // Create a new course
     public CompletableFuture<CourseResponseDto> createCourse(CourseRequestDto requestDto) {
@@ -32,43 +51,86 @@ public class CourseService {
                 .build();
 
         return courseRepository.save(course)
-                .thenCompose(id -> courseRepository.findById(id))
-                .thenApply(this::mapToResponseDto);
+                .thenApply(CourseService::mapToResponseDto);
     }
 
     // Get a course by ID
     public CompletableFuture<CourseResponseDto> getCourseById(String id) {
-        return courseRepository.findById(id)
-                .thenApply(course -> {
-                    if (course == null) {
+        return fetchCourseById(id).thenApply(Fetched::value);
+    }
+
+    // Also says whether the course was served stale while Firestore was failing
+    public CompletableFuture<Fetched<CourseResponseDto>> fetchCourseById(String id) {
+        return courseRepository.fetchById(id)
+                .thenApply(fetched -> {
+                    if (fetched.value() == null) {
                         throw new CourseNotFoundException("Course not found with id: " + id);
                     }
-                    return mapToResponseDto(course);
+                    return fetched.map(CourseService::mapToResponseDto);
                 });
     }
 
     // Get all courses
     public CompletableFuture<List<CourseResponseDto>> getAllCourses() {
-        return courseRepository.findAll()
+        return getAllCourses(Set.of());
+    }
+
+    // Only the given fields are read from Firestore and returned; empty means every field
+    public CompletableFuture<List<CourseResponseDto>> getAllCourses(Set<String> fields) {
+        checkFields(fields);
+        return courseRepository.findAll(fields)
                 .thenApply(courses -> courses.stream()
-                        .map(this::mapToResponseDto)
+                        .map(course -> mapToResponseDto(course, fields))
                         .collect(Collectors.toList()));
     }
     
+    // One chunk of an export, in id order, starting after the given id (null for the first chunk)
+    public CompletableFuture<List<CourseResponseDto>> getCoursesAfter(String afterId, int limit) {
+        return ConcurrencyLimiter.internal(() -> courseRepository.findAllAfterId(afterId, limit))
+                .thenApply(courses -> courses.stream()
+                        .map(CourseService::mapToResponseDto)
+                        .collect(Collectors.toList()));
+    }
+
     // Get all courses with pagination
-    public CompletableFuture<PageResponse<CourseResponseDto>> getAllCoursesWithPagination(PageRequest pageRequest) {
+    public CompletableFuture<Fetched<PageResponse<CourseResponseDto>>> getAllCoursesWithPagination(
+            PageRequest pageRequest) {
+        checkFields(pageRequest.getFields());
+        if (pageRequest.isCursorMode()) {
+            return getAllCoursesWithCursor(pageRequest);
+        }
         log.info("Service: Getting courses with pagination - page: {}, size: {}", pageRequest.getPage(), pageRequest.getSize());
         
-        CompletableFuture<List<Course>> coursesFuture = courseRepository.findAllWithPagination(pageRequest);
-        CompletableFuture<Long> countFuture = courseRepository.count();
+        CompletableFuture<Fetched<List<Course>>> coursesFuture = courseRepository.findAllWithPagination(pageRequest);
+        CompletableFuture<Fetched<Long>> countFuture = courseRepository.count();
         
-        return coursesFuture.thenCombine(countFuture, (courses, totalCount) -> {
-            List<CourseResponseDto> courseDtos = courses.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
-            
-            return PageResponse.of(courseDtos, pageRequest, totalCount);
-        });
+        return coursesFuture.thenCombine(countFuture, (fetched, fetchedCount) -> fetched.combine(fetchedCount,
+                (courses, totalCount) -> {
+                    List<CourseResponseDto> courseDtos = courses.stream()
+                        .map(course -> mapToResponseDto(course, pageRequest.getFields()))
+                        .collect(Collectors.toList());
+                    
+                    return PageResponse.of(courseDtos, pageRequest, totalCount);
+                }));
+    }
+
+    // Get a keyset page of courses
+    private CompletableFuture<Fetched<PageResponse<CourseResponseDto>>> getAllCoursesWithCursor(
+            PageRequest pageRequest) {
+        log.info("Service: Getting courses with cursor pagination - size: {}, sortBy: {}", pageRequest.getSize(), pageRequest.getSortBy());
+
+        CompletableFuture<Fetched<CursorPage<Course>>> pageFuture = courseRepository.findAllWithCursor(pageRequest);
+        CompletableFuture<Fetched<Long>> countFuture = courseRepository.count();
+
+        return pageFuture.thenCombine(countFuture, (fetched, fetchedCount) -> fetched.combine(fetchedCount,
+                (page, totalCount) -> {
+                    List<CourseResponseDto> courseDtos = page.getContent().stream()
+                            .map(course -> mapToResponseDto(course, pageRequest.getFields()))
+                            .collect(Collectors.toList());
+
+                    return PageResponse.ofCursor(courseDtos, pageRequest, totalCount, page.getNextCursor(),
+                            page.getPrevCursor());
+                }));
     }
 
     // Update an existing course
@@ -90,8 +152,7 @@ public class CourseService {
 
                     return courseRepository.save(updatedCourse);
                 })
-                .thenCompose(savedId -> courseRepository.findById(savedId))
-                .thenApply(this::mapToResponseDto);
+                .thenApply(CourseService::mapToResponseDto);
     }
 
     // Delete a course
@@ -105,8 +166,177 @@ public class CourseService {
                 });
     }
 
+    // Create many courses through batched writes, reporting a result per item
+    public CompletableFuture<BulkResponse<CourseResponseDto>> createCourses(List<CourseRequestDto> requests) {
+        BulkOperations.checkSize(requests.size(), properties.getBulk());
+        log.info("Service: Bulk creating {} courses", requests.size());
+
+        List<BulkItemResult<CourseResponseDto>> results = new ArrayList<>();
+        List<Slot<Course>> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(new Slot<>(i, buildCourse(null, requests.get(i), null)));
+            } else {
+                results.add(BulkItemResult.failure(i, null, BulkItemResult.Status.INVALID, errors));
+            }
+        }
+
+        return BulkOperations.processInChunks(valid, properties.getBulk(), chunk -> saveChunk(chunk, BulkItemResult.Status.CREATED))
+                .thenApply(written -> {
+                    results.addAll(written);
+                    return BulkResponse.of(results);
+                });
+    }
+
+    // Update many existing courses; ids that do not exist are reported as NOT_FOUND
+    public CompletableFuture<BulkResponse<CourseResponseDto>> updateCourses(List<CourseBulkUpdateDto> requests) {
+        BulkOperations.checkSize(requests.size(), properties.getBulk());
+        log.info("Service: Bulk updating {} courses", requests.size());
+
+        List<BulkItemResult<CourseResponseDto>> results = new ArrayList<>();
+        List<Slot<CourseBulkUpdateDto>> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(new Slot<>(i, requests.get(i)));
+            } else {
+                results.add(BulkItemResult.failure(i, requests.get(i).getId(), BulkItemResult.Status.INVALID, errors));
+            }
+        }
+
+        return BulkOperations.processInChunks(valid, properties.getBulk(), this::updateChunk)
+                .thenApply(written -> {
+                    results.addAll(written);
+                    return BulkResponse.of(results);
+                });
+    }
+
+    // Delete many courses by id; ids that do not exist are reported as NOT_FOUND
+    public CompletableFuture<BulkResponse<CourseResponseDto>> deleteCourses(List<String> ids) {
+        BulkOperations.checkSize(ids.size(), properties.getBulk());
+        log.info("Service: Bulk deleting {} courses", ids.size());
+
+        List<BulkItemResult<CourseResponseDto>> results = new ArrayList<>();
+        List<Slot<String>> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null || ids.get(i).isBlank()) {
+                results.add(BulkItemResult.failure(i, ids.get(i), BulkItemResult.Status.INVALID, List.of("Id is required")));
+            } else {
+                valid.add(new Slot<>(i, ids.get(i)));
+            }
+        }
+
+        return BulkOperations.processInChunks(valid, properties.getBulk(), this::deleteChunk)
+                .thenApply(deleted -> {
+                    results.addAll(deleted);
+                    return BulkResponse.of(results);
+                });
+    }
+
+    private CompletableFuture<List<BulkItemResult<CourseResponseDto>>> saveChunk(
+            List<Slot<Course>> chunk, BulkItemResult.Status status) {
+        List<Course> courses = chunk.stream().map(Slot::value).collect(Collectors.toList());
+
+        return courseRepository.saveAll(courses)
+                .handle((saved, throwable) -> chunk.stream()
+                        .map(slot -> throwable == null
+                                ? BulkItemResult.success(slot.index(), slot.value().getId(), status, mapToResponseDto(slot.value()))
+                                : BulkItemResult.<CourseResponseDto>failure(slot.index(), slot.value().getId(),
+                                        BulkItemResult.Status.FAILED, List.of(BulkOperations.describe(throwable))))
+                        .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<List<BulkItemResult<CourseResponseDto>>> updateChunk(List<Slot<CourseBulkUpdateDto>> chunk) {
+        List<String> ids = chunk.stream().map(slot -> slot.value().getId()).collect(Collectors.toList());
+
+        return courseRepository.findAllById(ids)
+                .thenCompose(existing -> {
+                    List<BulkItemResult<CourseResponseDto>> missing = new ArrayList<>();
+                    List<Slot<Course>> toSave = new ArrayList<>();
+                    for (Slot<CourseBulkUpdateDto> slot : chunk) {
+                        Course current = existing.get(slot.value().getId());
+                        if (current == null) {
+                            missing.add(BulkItemResult.failure(slot.index(), slot.value().getId(), BulkItemResult.Status.NOT_FOUND,
+                                    List.of("Course not found with id: " + slot.value().getId())));
+                        } else {
+                            toSave.add(new Slot<>(slot.index(), buildCourse(current.getId(), slot.value(), current.getCreatedAt())));
+                        }
+                    }
+                    if (toSave.isEmpty()) {
+                        return CompletableFuture.completedFuture(missing);
+                    }
+                    return saveChunk(toSave, BulkItemResult.Status.UPDATED)
+                            .thenApply(updated -> {
+                                missing.addAll(updated);
+                                return missing;
+                            });
+                })
+                .exceptionally(throwable -> failChunk(chunk, slot -> slot.value().getId(), throwable));
+    }
+
+    private CompletableFuture<List<BulkItemResult<CourseResponseDto>>> deleteChunk(List<Slot<String>> chunk) {
+        List<String> ids = chunk.stream().map(Slot::value).collect(Collectors.toList());
+
+        return courseRepository.findAllById(ids)
+                .thenCompose(existing -> {
+                    List<String> toDelete = ids.stream().filter(existing::containsKey).distinct().collect(Collectors.toList());
+                    CompletableFuture<Void> deleted = toDelete.isEmpty()
+                            ? CompletableFuture.completedFuture(null)
+                            : courseRepository.deleteAllById(toDelete);
+                    return deleted.thenApply(v -> chunk.stream()
+                            .map(slot -> existing.containsKey(slot.value())
+                                    ? BulkItemResult.<CourseResponseDto>success(slot.index(), slot.value(), BulkItemResult.Status.DELETED, null)
+                                    : BulkItemResult.<CourseResponseDto>failure(slot.index(), slot.value(), BulkItemResult.Status.NOT_FOUND,
+                                            List.of("Course not found with id: " + slot.value())))
+                            .collect(Collectors.toList()));
+                })
+                .exceptionally(throwable -> failChunk(chunk, Slot::value, throwable));
+    }
+
+    private <T> List<BulkItemResult<CourseResponseDto>> failChunk(List<Slot<T>> chunk, Function<Slot<T>, String> idOf,
+                                                                 Throwable throwable) {
+        log.error("Service: Bulk chunk of {} courses failed: {}", chunk.size(), throwable.getMessage());
+        return chunk.stream()
+                .map(slot -> BulkItemResult.<CourseResponseDto>failure(slot.index(), idOf.apply(slot),
+                        BulkItemResult.Status.FAILED, List.of(BulkOperations.describe(throwable))))
+                .collect(Collectors.toList());
+    }
+
+    // Bean validation plus the fee check that the single-item endpoints leave to BigDecimal parsing
+    private List<String> validate(CourseRequestDto request) {
+        List<String> errors = validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (request.getFee() != null && !request.getFee().isBlank()) {
+            try {
+                new BigDecimal(request.getFee());
+            } catch (NumberFormatException e) {
+                errors.add("Fee must be a number");
+            }
+        }
+        return errors;
+    }
+
+    private Course buildCourse(String id, CourseRequestDto requestDto, Timestamp createdAt) {
+        return Course.builder()
+                .id(id)
+                .name(requestDto.getName())
+                .fee(new BigDecimal(requestDto.getFee()))
+                .lecturerId(requestDto.getLecturerId())
+                .lecturerName(requestDto.getLecturerName())
+                .createdAt(createdAt)
+                .build();
+    }
+
+    // Memo for resolving Student.course references; create one per request
+    public CourseLookup newLookup() {
+        return new CourseLookup(courseRepository, CourseService::mapToResponseDto);
+    }
+
     // Map Course entity to CourseResponseDto
-    private CourseResponseDto mapToResponseDto(Course course) {
+    static CourseResponseDto mapToResponseDto(Course course) {
         return CourseResponseDto.builder()
                 .id(course.getId())
                 .name(course.getName())
@@ -117,4 +347,29 @@ public class CourseService {
                 .updatedAt(course.getUpdatedAt())
                 .build();
     }
+
+    // Copies only the requested fields; the id is always included
+    static CourseResponseDto mapToResponseDto(Course course, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return mapToResponseDto(course);
+        }
+        return new SparseCourseResponseDto(CourseResponseDto.builder()
+                .id(course.getId())
+                .name(fields.contains("name") ? course.getName() : null)
+                .fee(fields.contains("fee") && course.getFee() != null ? course.getFee().toString() : null)
+                .lecturerId(fields.contains("lecturerId") ? course.getLecturerId() : null)
+                .lecturerName(fields.contains("lecturerName") ? course.getLecturerName() : null)
+                .createdAt(fields.contains("createdAt") ? course.getCreatedAt() : null)
+                .updatedAt(fields.contains("updatedAt") ? course.getUpdatedAt() : null)
+                .build());
+    }
+
+    private void checkFields(Set<String> fields) {
+        for (String field : fields) {
+            if (!CourseRepository.FIELDS.contains(field)) {
+                throw new InvalidQueryException("Unknown field '" + field + "'. Allowed: "
+                        + String.join(", ", new TreeSet<>(CourseRepository.FIELDS)));
+            }
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.studentmanagement.api.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+ * Records end at CRLF, LF or a bare CR, and a closing quote must end its field.
+ * Only the current record is held in memory.
+ */
+final class CsvReader implements Closeable {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+    private long line = 1;
+    private long recordLine;
+    private boolean firstRecord = true;
+
+    CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    // Line on which the record last returned by readRecord() started
+    long getRecordLine() {
+        return recordLine;
+    }
+
+    // Next non-blank record, or null at end of input
+    List<String> readRecord() throws IOException {
+        List<String> record;
+        do {
+            record = readRawRecord();
+        } while (record != null && record.size() == 1 && record.get(0).isBlank());
+        return record;
+    }
+
+    private List<String> readRawRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        if (firstRecord) {
+            firstRecord = false;
+            if (c == BYTE_ORDER_MARK) {
+                c = reader.read();
+                if (c == -1) {
+                    return null;
+                }
+            }
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quotedField = false;
+        while (true) {
+            if (c == -1) {
+                if (inQuotes) {
+                    throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            char ch = (char) c;
+            if (inQuotes) {
+                if (ch == '"') {
+                    if (peek() == '"') {
+                        reader.read();
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        int next = peek();
+                        if (next != -1 && next != ',' && next != '\n' && next != '\r') {
+                            throw new IOException("Unexpected character after closing quote in record on line "
+                                    + recordLine);
+                        }
+                    }
+                } else {
+                    if (ch == '\n' || ch == '\r' && peek() != '\n') {
+                        line++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.isEmpty() && !quotedField) {
+                inQuotes = true;
+                quotedField = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                quotedField = false;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r' && peek() == '\n') {
+                    reader.read();
+                }
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(ch);
+            }
+            c = reader.read();
+        }
+    }
+
+    // Next character without consuming it
+    private int peek() throws IOException {
+        reader.mark(1);
+        int next = reader.read();
+        reader.reset();
+        return next;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
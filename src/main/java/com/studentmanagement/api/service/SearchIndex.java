@@ -0,0 +1,212 @@
+package com.studentmanagement.api.service;
+
+import com.google.cloud.Timestamp;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over a few text fields of one document type.
+ *
+ * Text is lower-cased, stripped of accents and split on anything that is not a letter or digit.
+ * Terms live in a sorted map so a prefix is a range scan. Every query token must match (as a whole
+ * term or as a prefix of one); a document scores the field weight of each matching term, doubled
+ * for whole-term matches, and the best {@code limit} documents are returned.
+ *
+ * Reads never lock. Writers are serialised, and a document is only replaced by a version that is
+ * at least as new, so a slow bulk load cannot overwrite a newer incremental update.
+ */
+class SearchIndex<T> {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Caps the work for very short prefixes such as a single letter
+    private static final int MAX_PREFIX_TERMS = 2_000;
+
+    private final NavigableMap<String, Map<String, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Entry<T>> documents = new ConcurrentHashMap<>();
+    private final Map<String, Timestamp> deletions = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * @param fields text per field name, weighted by the matching entry of {@code weights}
+     */
+    void put(String id, Timestamp version, T document, Map<String, String> fields, Map<String, Float> weights) {
+        writeLock.lock();
+        try {
+            Entry<T> current = documents.get(id);
+            if (current != null && isOlder(version, current.version())) {
+                return;
+            }
+            Timestamp deletedAt = deletions.get(id);
+            if (deletedAt != null && isOlder(version, deletedAt)) {
+                return;
+            }
+            deletions.remove(id);
+
+            Map<String, Float> termWeights = new HashMap<>();
+            fields.forEach((field, text) -> {
+                float weight = weights.getOrDefault(field, 1f);
+                for (String term : tokenize(text)) {
+                    termWeights.merge(term, weight, Math::max);
+                }
+            });
+
+            if (current != null) {
+                unlink(id, current.terms());
+            }
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(id, weight));
+            documents.put(id, new Entry<>(document, version, termWeights.keySet()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Remembers the deletion by its commit time so an older copy arriving from a concurrent load
+    // is not re-added; a copy written after the deletion is kept
+    void remove(String id, Timestamp deletedAt) {
+        writeLock.lock();
+        try {
+            Entry<T> current = documents.get(id);
+            if (current != null && isOlder(deletedAt, current.version())) {
+                return;
+            }
+            deletions.merge(id, deletedAt, (previous, next) -> isOlder(previous, next) ? next : previous);
+            documents.remove(id);
+            if (current != null) {
+                unlink(id, current.terms());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Drops documents that a completed full load did not see and forgets old deletion markers
+    void retainOnly(Set<String> ids, Timestamp loadStartedAt) {
+        writeLock.lock();
+        try {
+            for (String id : new ArrayList<>(documents.keySet())) {
+                Entry<T> entry = documents.get(id);
+                if (!ids.contains(id) && entry != null && isOlder(entry.version(), loadStartedAt)) {
+                    documents.remove(id);
+                    unlink(id, entry.terms());
+                }
+            }
+            deletions.values().removeIf(deletedAt -> isOlder(deletedAt, loadStartedAt));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    List<Hit<T>> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<String, Float> scores = null;
+        for (String token : new HashSet<>(tokens)) {
+            Map<String, Float> matches = match(token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                Map<String, Float> previous = scores;
+                scores = new HashMap<>();
+                for (Map.Entry<String, Float> match : matches.entrySet()) {
+                    Float score = previous.get(match.getKey());
+                    if (score != null) {
+                        scores.put(match.getKey(), score + match.getValue());
+                    }
+                }
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        Comparator<Hit<T>> ranking = Comparator.comparingDouble((Hit<T> hit) -> hit.score())
+                .thenComparing(Hit::id, Comparator.reverseOrder());
+        PriorityQueue<Hit<T>> top = new PriorityQueue<>(limit + 1, ranking);
+        scores.forEach((id, score) -> {
+            Entry<T> entry = documents.get(id);
+            if (entry != null) {
+                top.add(new Hit<>(id, score, entry.document()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        });
+
+        List<Hit<T>> hits = new ArrayList<>(top);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    // Best score per document for one query token across every term it is a prefix of
+    private Map<String, Float> match(String token) {
+        Map<String, Float> scores = new HashMap<>();
+        int terms = 0;
+        for (Map.Entry<String, Map<String, Float>> posting
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (++terms > MAX_PREFIX_TERMS) {
+                break;
+            }
+            float boost = posting.getKey().length() == token.length() ? 2f : 1f;
+            posting.getValue().forEach((id, weight) -> scores.merge(id, weight * boost, Math::max));
+        }
+        return scores;
+    }
+
+    private void unlink(String id, Set<String> terms) {
+        for (String term : terms) {
+            postings.computeIfPresent(term, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isOlder(Timestamp version, Timestamp than) {
+        return version != null && than != null && version.compareTo(than) < 0;
+    }
+
+    record Hit<T>(String id, float score, T document) {
+    }
+
+    private record Entry<T>(T document, Timestamp version, Set<String> terms) {
+    }
+}
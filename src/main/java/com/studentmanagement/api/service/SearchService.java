@@ -0,0 +1,217 @@
+package com.studentmanagement.api.service;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.SearchProperties;
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.dto.SearchHitDto;
+import com.studentmanagement.api.dto.StudentResponseDto;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.model.Student;
+import com.studentmanagement.api.repository.ConcurrencyLimiter;
+import com.studentmanagement.api.repository.CourseRepository;
+import com.studentmanagement.api.repository.DocumentChangedEvent;
+import com.studentmanagement.api.repository.StudentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Type-ahead search over students (name, address, city) and courses (name, lecturer name).
+ *
+ * Both indexes are loaded from Firestore once the application is ready and then kept current from
+ * the {@link DocumentChangedEvent}s the repositories publish, so queries never touch Firestore.
+ * Writes made by other instances are only picked up by the optional periodic rebuild.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.search", name = "enabled", matchIfMissing = true)
+@Slf4j
+public class SearchService {
+
+    private static final Map<String, Float> STUDENT_WEIGHTS = Map.of("name", 3f, "city", 1.5f, "address", 1f);
+    private static final Map<String, Float> COURSE_WEIGHTS = Map.of("name", 3f, "lecturerName", 2f);
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final SearchProperties properties;
+    private final AsyncTaskExecutor taskExecutor;
+    private final Timer searchTimer;
+
+    private final SearchIndex<StudentResponseDto> students = new SearchIndex<>();
+    private final SearchIndex<CourseResponseDto> courses = new SearchIndex<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public SearchService(StudentRepository studentRepository, CourseRepository courseRepository,
+                         SearchProperties properties,
+                         @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                         MeterRegistry meterRegistry) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.properties = properties;
+        this.taskExecutor = taskExecutor;
+        this.searchTimer = Timer.builder("search.latency")
+                .description("Time to answer a search from the in-memory index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("search.index.documents", students, SearchIndex::size)
+                .tag("type", "student")
+                .register(meterRegistry);
+        Gauge.builder("search.index.documents", courses, SearchIndex::size)
+                .tag("type", "course")
+                .register(meterRegistry);
+    }
+
+    public List<SearchHitDto> search(String query, SearchHitDto.Type type, Integer limit) {
+        int max = limit == null ? properties.getDefaultLimit() : Math.max(1, Math.min(limit, properties.getMaxLimit()));
+        return searchTimer.record(() -> {
+            List<SearchHitDto> hits = new ArrayList<>();
+            if (type == null || type == SearchHitDto.Type.STUDENT) {
+                students.search(query, max).forEach(hit -> hits.add(SearchHitDto.builder()
+                        .type(SearchHitDto.Type.STUDENT)
+                        .id(hit.id())
+                        .score(hit.score())
+                        .student(hit.document())
+                        .build()));
+            }
+            if (type == null || type == SearchHitDto.Type.COURSE) {
+                courses.search(query, max).forEach(hit -> hits.add(SearchHitDto.builder()
+                        .type(SearchHitDto.Type.COURSE)
+                        .id(hit.id())
+                        .score(hit.score())
+                        .course(hit.document())
+                        .build()));
+            }
+            hits.sort(Comparator.comparingDouble(SearchHitDto::getScore).reversed());
+            return hits.size() > max ? hits.subList(0, max) : hits;
+        });
+    }
+
+    // Runs on the thread completing the write; must never fail the write it reports
+    @EventListener
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        try {
+            if (StudentRepository.COLLECTION_NAME.equals(event.collection())) {
+                if (event.isDeletion()) {
+                    students.remove(event.id(), event.deletedAt());
+                } else {
+                    index((Student) event.document());
+                }
+            } else if (CourseRepository.COLLECTION_NAME.equals(event.collection())) {
+                if (event.isDeletion()) {
+                    courses.remove(event.id(), event.deletedAt());
+                } else {
+                    index((Course) event.document());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Search: Failed to index {} {}: {}", event.collection(), event.id(), e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::rebuild);
+    }
+
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture<Void> loaded;
+        try {
+            loaded = load("students", studentRepository::findAllAfterId, Student::getId, this::index, students)
+                    .thenCompose(studentsLoaded ->
+                            load("courses", courseRepository::findAllAfterId, Course::getId, this::index, courses));
+        } catch (RuntimeException e) {
+            loaded = CompletableFuture.failedFuture(e);
+        }
+        loaded.whenComplete((done, throwable) -> {
+            if (throwable != null) {
+                log.error("Search: Index rebuild failed", throwable);
+            }
+            rebuilding.set(false);
+            scheduleNextRebuild();
+        });
+    }
+
+    private void scheduleNextRebuild() {
+        long intervalMillis = properties.getRebuildInterval().toMillis();
+        if (intervalMillis > 0) {
+            CompletableFuture.delayedExecutor(intervalMillis, TimeUnit.MILLISECONDS, taskExecutor)
+                    .execute(this::rebuild);
+        }
+    }
+
+    // Streams the collection in id order; documents written meanwhile keep their newer version
+    private <E> CompletableFuture<Void> load(String name,
+                                             BiFunction<String, Integer, CompletableFuture<List<E>>> fetchChunk,
+                                             Function<E, String> idOf, Consumer<E> indexer, SearchIndex<?> index) {
+        long started = System.nanoTime();
+        Timestamp loadStartedAt = Timestamp.now();
+        Set<String> seen = new HashSet<>();
+        return loadChunks(name, null, fetchChunk, idOf, indexer, seen)
+                .thenRun(() -> {
+                    index.retainOnly(seen, loadStartedAt);
+                    log.info("Search: Indexed {} {} in {} ms", index.size(), name,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                });
+    }
+
+    // Requests the next chunk once the previous one is indexed, so no thread waits while Firestore reads;
+    // indexing runs on the task executor rather than a Firestore callback thread
+    private <E> CompletableFuture<Void> loadChunks(String name, String afterId,
+                                                   BiFunction<String, Integer, CompletableFuture<List<E>>> fetchChunk,
+                                                   Function<E, String> idOf, Consumer<E> indexer, Set<String> seen) {
+        return ConcurrencyLimiter.internal(() -> fetchChunk.apply(afterId, properties.getLoadChunkSize()))
+                .thenComposeAsync(chunk -> {
+                    for (E entity : chunk) {
+                        seen.add(idOf.apply(entity));
+                        try {
+                            indexer.accept(entity);
+                        } catch (RuntimeException e) {
+                            log.warn("Search: Skipping {} {}: {}", name, idOf.apply(entity), e.getMessage());
+                        }
+                    }
+                    if (chunk.size() < properties.getLoadChunkSize()) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    return loadChunks(name, idOf.apply(chunk.get(chunk.size() - 1)), fetchChunk, idOf, indexer, seen);
+                }, taskExecutor);
+    }
+
+    private void index(Student student) {
+        students.put(student.getId(), student.getUpdatedAt(), StudentService.mapToResponseDto(student), Map.of(
+                "name", nullToEmpty(student.getName()),
+                "address", nullToEmpty(student.getAddress()),
+                "city", nullToEmpty(student.getCity())), STUDENT_WEIGHTS);
+    }
+
+    private void index(Course course) {
+        courses.put(course.getId(), course.getUpdatedAt(), CourseService.mapToResponseDto(course), Map.of(
+                "name", nullToEmpty(course.getName()),
+                "lecturerName", nullToEmpty(course.getLecturerName())), COURSE_WEIGHTS);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
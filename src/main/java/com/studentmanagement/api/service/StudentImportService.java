@@ -0,0 +1,279 @@
+package com.studentmanagement.api.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.ImportReportDto;
+import com.studentmanagement.api.dto.StudentRequestDto;
+import com.studentmanagement.api.exception.InvalidQueryException;
+import com.studentmanagement.api.model.Student;
+import com.studentmanagement.api.repository.ConcurrencyLimiter;
+import com.studentmanagement.api.repository.StudentRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Imports students from CSV uploads in constant memory.
+ *
+ * The upload is parsed one record at a time and valid rows are collected into WriteBatch-sized
+ * batches. At most {@code maxInFlightBatches} commits run at once: when they are all busy the
+ * reading thread blocks, which stops consuming the upload until a commit finishes. A shared rate
+ * limiter keeps the combined write rate of all imports under the configured quota.
+ */
+@Service
+@Slf4j
+public class StudentImportService {
+
+    private static final List<String> COLUMNS = List.of("title", "name", "address", "city", "course");
+
+    private final StudentRepository studentRepository;
+    private final Validator validator;
+    private final FirestoreProperties.CsvImport properties;
+    private final RateLimiter writeLimiter;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedJobs = new ConcurrentLinkedDeque<>();
+
+    public StudentImportService(StudentRepository studentRepository, Validator validator,
+                                FirestoreProperties properties) {
+        this.studentRepository = studentRepository;
+        this.validator = validator;
+        this.properties = properties.getCsvImport();
+        this.writeLimiter = this.properties.getMaxWritesPerSecond() > 0
+                ? RateLimiter.create(this.properties.getMaxWritesPerSecond())
+                : null;
+    }
+
+    // Runs the whole import on the calling thread and returns the final report
+    public ImportReportDto importStudents(InputStream input, String source) {
+        return importStudents(input, source, () -> false);
+    }
+
+    // Once cancelled, no further rows are read or submitted; commits already in flight still complete
+    public ImportReportDto importStudents(InputStream input, String source, BooleanSupplier cancelled) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), source);
+        jobs.put(job.id, job);
+        log.info("Service: Starting student import {} from {}", job.id, source);
+
+        int maxInFlight = Math.max(1, properties.getMaxInFlightBatches());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try (CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = readHeader(reader);
+            int batchSize = Math.max(1, Math.min(properties.getBatchSize(), 500));
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            List<String> record;
+            while (!cancelled.getAsBoolean() && (record = reader.readRecord()) != null) {
+                job.rowsRead.incrementAndGet();
+                StudentRequestDto request = toRequest(record, columns);
+                List<String> errors = validate(request);
+                if (!errors.isEmpty()) {
+                    job.rowFailed(reader.getRecordLine(), errors);
+                    continue;
+                }
+                batch.add(new Row(reader.getRecordLine(), toStudent(request)));
+                if (batch.size() >= batchSize) {
+                    submit(job, batch, inFlight);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (cancelled.getAsBoolean()) {
+                job.failureReason = "Import cancelled after " + job.rowsRead.get() + " rows";
+            } else if (!batch.isEmpty()) {
+                submit(job, batch, inFlight);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never null, or the failed job would be reported as completed
+            job.failureReason = BulkOperations.describe(e);
+        } finally {
+            // Wait for every outstanding commit so the report is final
+            inFlight.acquireUninterruptibly(maxInFlight);
+        }
+
+        finish(job);
+        if (job.status == ImportReportDto.Status.FAILED && job.rowsRead.get() == 0) {
+            throw new InvalidQueryException("Import failed: " + job.failureReason);
+        }
+        return job.toDto();
+    }
+
+    public List<ImportReportDto> getImports() {
+        return jobs.values().stream()
+                .map(ImportJob::toDto)
+                .sorted(Comparator.comparing(ImportReportDto::getStartedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public Optional<ImportReportDto> getImport(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ImportJob::toDto);
+    }
+
+    private void submit(ImportJob job, List<Row> rows, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        job.batchesInFlight.incrementAndGet();
+
+        CompletableFuture<List<Student>> written;
+        try {
+            if (writeLimiter != null) {
+                writeLimiter.acquire(rows.size());
+            }
+            List<Student> students = rows.stream().map(Row::student).collect(Collectors.toList());
+            written = ConcurrencyLimiter.internal(() -> studentRepository.saveAll(students));
+        } catch (RuntimeException e) {
+            written = CompletableFuture.failedFuture(e);
+        }
+        // The permit goes back even if recording the outcome throws, or the final wait would never return
+        written.whenComplete((saved, throwable) -> {
+            try {
+                if (throwable == null) {
+                    job.rowsImported.addAndGet(rows.size());
+                } else {
+                    String reason = BulkOperations.describe(throwable);
+                    rows.forEach(row -> job.rowFailed(row.line(), List.of(reason)));
+                }
+            } finally {
+                job.batchesInFlight.decrementAndGet();
+                inFlight.release();
+            }
+        });
+    }
+
+    private Map<String, Integer> readHeader(CsvReader reader) throws IOException {
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new InvalidQueryException("CSV upload is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new InvalidQueryException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private StudentRequestDto toRequest(List<String> record, Map<String, Integer> columns) {
+        return new StudentRequestDto(
+                column(record, columns, "title"),
+                column(record, columns, "name"),
+                column(record, columns, "address"),
+                column(record, columns, "city"),
+                column(record, columns, "course"));
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < record.size() ? record.get(index).trim() : null;
+    }
+
+    private List<String> validate(StudentRequestDto request) {
+        return validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private Student toStudent(StudentRequestDto request) {
+        return Student.builder()
+                .title(request.getTitle())
+                .name(request.getName())
+                .address(request.getAddress())
+                .city(request.getCity())
+                .course(request.getCourse())
+                .build();
+    }
+
+    private void finish(ImportJob job) {
+        job.finishedAt = Instant.now();
+        job.status = job.failureReason == null ? ImportReportDto.Status.COMPLETED : ImportReportDto.Status.FAILED;
+        log.info("Service: Student import {} {} - read: {}, imported: {}, failed: {}", job.id, job.status,
+                job.rowsRead.get(), job.rowsImported.get(), job.rowsFailed.get());
+
+        finishedJobs.addLast(job.id);
+        while (finishedJobs.size() > properties.getHistorySize()) {
+            String evicted = finishedJobs.pollFirst();
+            if (evicted != null) {
+                jobs.remove(evicted);
+            }
+        }
+    }
+
+    private record Row(long line, Student student) {
+    }
+
+    // Live progress of one import; counters are updated from Firestore callback threads
+    private final class ImportJob {
+        private final String id;
+        private final String source;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsFailed = new AtomicLong();
+        private final AtomicInteger batchesInFlight = new AtomicInteger();
+        private final AtomicInteger reportedErrors = new AtomicInteger();
+        private final Queue<ImportReportDto.RowError> errors = new ConcurrentLinkedQueue<>();
+        private volatile ImportReportDto.Status status = ImportReportDto.Status.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String failureReason;
+
+        private ImportJob(String id, String source) {
+            this.id = id;
+            this.source = source;
+        }
+
+        private void rowFailed(long line, List<String> rowErrors) {
+            rowsFailed.incrementAndGet();
+            if (reportedErrors.incrementAndGet() <= properties.getMaxReportedErrors()) {
+                errors.add(new ImportReportDto.RowError(line, rowErrors));
+            }
+        }
+
+        private ImportReportDto toDto() {
+            return ImportReportDto.builder()
+                    .id(id)
+                    .source(source)
+                    .status(status)
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsFailed(rowsFailed.get())
+                    .batchesInFlight(batchesInFlight.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .failureReason(failureReason)
+                    .errors(errors.stream()
+                            .sorted(Comparator.comparingLong(ImportReportDto.RowError::getLine))
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+    }
+}
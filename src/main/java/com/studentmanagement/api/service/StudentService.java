@@ -1,17 +1,37 @@
 package com.studentmanagement.api.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.exception.InvalidQueryException;
 import com.studentmanagement.api.exception.StudentNotFoundException;
+import com.studentmanagement.api.dto.BulkItemResult;
+import com.studentmanagement.api.dto.BulkResponse;
 import com.studentmanagement.api.dto.PageRequest;
 import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.dto.SparseStudentResponseDto;
+import com.studentmanagement.api.dto.StudentBulkUpdateDto;
 import com.studentmanagement.api.dto.StudentRequestDto;
 import com.studentmanagement.api.dto.StudentResponseDto;
 import com.studentmanagement.api.model.Student;
+import com.studentmanagement.api.repository.ConcurrencyLimiter;
+import com.studentmanagement.api.repository.CursorPage;
+import com.studentmanagement.api.repository.Fetched;
 import com.studentmanagement.api.repository.StudentRepository;
+import com.studentmanagement.api.service.BulkOperations.Slot;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +41,9 @@ import lombok.extern.slf4j.Slf4j;
 public class StudentService {
     
     private final StudentRepository studentRepository;
+    private final Validator validator;
+    private final FirestoreProperties properties;
+    private final CourseService courseService;
     
     public CompletableFuture<StudentResponseDto> createStudent(StudentRequestDto requestDto) {
         log.info("Service: Creating student with name: {}", requestDto.getName());
@@ -34,46 +57,160 @@ public class StudentService {
             
         log.debug("Service: Built student object, now saving...");
         return studentRepository.save(student)
-            .thenCompose(id -> {
-                log.debug("Service: Student saved with ID: {}, now fetching...", id);
-                return studentRepository.findById(id);
-            })
             .thenApply(savedStudent -> {
-                log.debug("Service: Retrieved student, mapping to DTO...");
+                log.debug("Service: Student saved with ID: {}, mapping to DTO...", savedStudent.getId());
                 return mapToResponseDto(savedStudent);
             });
     }
     
     public CompletableFuture<StudentResponseDto> getStudentById(String id) {
-        return studentRepository.findById(id)
-            .thenApply(student -> {
-                if (student == null) {
+        return fetchStudentById(id, false).thenApply(Fetched::value);
+    }
+    
+    // Also says whether the student was served stale while Firestore was failing
+    public CompletableFuture<Fetched<StudentResponseDto>> fetchStudentById(String id, boolean expandCourse) {
+        return studentRepository.fetchById(id)
+            .thenCompose(fetched -> {
+                if (fetched.value() == null) {
                     throw new StudentNotFoundException("Student not found with id: " + id);
                 }
-                return mapToResponseDto(student);
+                return toResponses(List.of(fetched.value()), Set.of(), lookup(expandCourse))
+                    .thenApply(students -> fetched.map(student -> students.get(0)));
             });
     }
     
     public CompletableFuture<List<StudentResponseDto>> getAllStudents() {
         return studentRepository.findAll()
             .thenApply(students -> students.stream()
-                .map(this::mapToResponseDto)
+                .map(StudentService::mapToResponseDto)
                 .collect(Collectors.toList()));
     }
     
-    public CompletableFuture<PageResponse<StudentResponseDto>> getAllStudentsWithPagination(PageRequest pageRequest) {
+    // Students matching every given equality filter, e.g. {city=Colombo}; no filters returns all students.
+    // Only the given fields are read from Firestore and returned; empty means every field
+    public CompletableFuture<List<StudentResponseDto>> getStudents(Map<String, String> filters, Set<String> fields,
+            boolean expandCourse) {
+        checkFields(fields);
+        return studentRepository.findAllMatching(filters, fieldsToRead(fields, expandCourse))
+            .thenCompose(students -> toResponses(students, fields, lookup(expandCourse)));
+    }
+    
+    // All students referencing the course by id or by name, each carrying the course itself
+    public CompletableFuture<List<StudentResponseDto>> getStudentsByCourse(String courseId) {
+        return courseService.getCourseById(courseId)
+            .thenCompose(course -> studentRepository.findByCourseIn(List.of(course.getId(), course.getName()))
+                .thenApply(students -> students.stream()
+                    .map(student -> {
+                        StudentResponseDto dto = mapToResponseDto(student);
+                        dto.setCourseDetails(course);
+                        return dto;
+                    })
+                    .collect(Collectors.toList())));
+    }
+    
+    // One chunk of an export, in id order, starting after the given id (null for the first chunk)
+    public CompletableFuture<List<StudentResponseDto>> getStudentsAfter(String afterId, int limit) {
+        return ConcurrencyLimiter.internal(() -> studentRepository.findAllAfterId(afterId, limit))
+            .thenApply(students -> students.stream()
+                .map(StudentService::mapToResponseDto)
+                .collect(Collectors.toList()));
+    }
+    
+    // Export chunk source; with expandCourse one memo spans all chunks so each course is read once per export
+    public BiFunction<String, Integer, CompletableFuture<List<StudentResponseDto>>> exportChunks(boolean expandCourse) {
+        if (!expandCourse) {
+            return this::getStudentsAfter;
+        }
+        CourseLookup courses = courseService.newLookup();
+        return (afterId, limit) -> ConcurrencyLimiter.internal(() -> studentRepository.findAllAfterId(afterId, limit))
+            .thenCompose(students -> ConcurrencyLimiter.internal(() -> toResponses(students, Set.of(), courses)));
+    }
+    
+    public CompletableFuture<Fetched<PageResponse<StudentResponseDto>>> getAllStudentsWithPagination(
+            PageRequest pageRequest, boolean expandCourse) {
+        checkSortable(pageRequest.getSortBy());
+        checkFields(pageRequest.getFields());
+        // The repository reads the copy's fields, the response keeps only the requested ones
+        Set<String> fields = pageRequest.getFields();
+        PageRequest read = pageRequest.toBuilder().fields(fieldsToRead(fields, expandCourse)).build();
+        if (read.isCursorMode()) {
+            return getAllStudentsWithCursor(read, fields, expandCourse);
+        }
         log.info("Service: Getting students with pagination - page: {}, size: {}", pageRequest.getPage(), pageRequest.getSize());
         
-        CompletableFuture<List<Student>> studentsFuture = studentRepository.findAllWithPagination(pageRequest);
-        CompletableFuture<Long> countFuture = studentRepository.count();
+        CompletableFuture<Fetched<List<Student>>> pageFuture = studentRepository.findAllWithPagination(read);
+        CompletableFuture<List<StudentResponseDto>> studentsFuture = pageFuture
+            .thenCompose(page -> toResponses(page.value(), fields, lookup(expandCourse)));
+        CompletableFuture<Fetched<Long>> countFuture = studentRepository.count(read.getFilters());
         
-        return studentsFuture.thenCombine(countFuture, (students, totalCount) -> {
-            List<StudentResponseDto> studentDtos = students.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
-            
-            return PageResponse.of(studentDtos, pageRequest, totalCount);
-        });
+        return studentsFuture.thenCombine(countFuture, (studentDtos, totalCount) ->
+            pageFuture.join().combine(totalCount, (page, total) -> PageResponse.of(studentDtos, pageRequest, total)));
+    }
+    
+    private CompletableFuture<Fetched<PageResponse<StudentResponseDto>>> getAllStudentsWithCursor(
+            PageRequest pageRequest, Set<String> fields, boolean expandCourse) {
+        log.info("Service: Getting students with cursor pagination - size: {}, sortBy: {}", pageRequest.getSize(), pageRequest.getSortBy());
+        
+        CompletableFuture<Fetched<CursorPage<Student>>> pageFuture = studentRepository.findAllWithCursor(pageRequest);
+        CompletableFuture<List<StudentResponseDto>> studentsFuture = pageFuture
+            .thenCompose(page -> toResponses(page.value().getContent(), fields, lookup(expandCourse)));
+        CompletableFuture<Fetched<Long>> countFuture = studentRepository.count(pageRequest.getFilters());
+        
+        return studentsFuture.thenCombine(countFuture, (studentDtos, totalCount) ->
+            pageFuture.join().combine(totalCount, (page, total) ->
+                PageResponse.ofCursor(studentDtos, pageRequest, total, page.getNextCursor(), page.getPrevCursor())));
+    }
+    
+    private CourseLookup lookup(boolean expandCourse) {
+        return expandCourse ? courseService.newLookup() : null;
+    }
+    
+    // Expanding the course needs the course reference even when the client did not ask for it
+    static Set<String> fieldsToRead(Set<String> fields, boolean expandCourse) {
+        if (fields.isEmpty() || !expandCourse || fields.contains("course")) {
+            return fields;
+        }
+        Set<String> read = new LinkedHashSet<>(fields);
+        read.add("course");
+        return read;
+    }
+    
+    // Maps a batch of students to the given fields, resolving all their courses in one lookup when a memo is given
+    private CompletableFuture<List<StudentResponseDto>> toResponses(List<Student> students, Set<String> fields,
+            CourseLookup courses) {
+        if (courses == null) {
+            return CompletableFuture.completedFuture(students.stream()
+                .map(student -> mapToResponseDto(student, fields))
+                .collect(Collectors.toList()));
+        }
+        List<String> references = students.stream()
+            .map(Student::getCourse)
+            .collect(Collectors.toList());
+        return courses.resolve(references)
+            .thenApply(resolved -> students.stream()
+                .map(student -> {
+                    StudentResponseDto dto = mapToResponseDto(student, fields);
+                    dto.setCourseDetails(resolved.get(student.getCourse()));
+                    return dto;
+                })
+                .collect(Collectors.toList()));
+    }
+    
+    private void checkFields(Set<String> fields) {
+        for (String field : fields) {
+            if (!StudentRepository.FIELDS.contains(field)) {
+                throw new InvalidQueryException("Unknown field '" + field + "'. Allowed: "
+                    + String.join(", ", new TreeSet<>(StudentRepository.FIELDS)));
+            }
+        }
+    }
+    
+    // Only fields covered by firestore.indexes.json can be combined with filters
+    private void checkSortable(String sortBy) {
+        if (!StudentRepository.SORTABLE_FIELDS.contains(sortBy)) {
+            throw new InvalidQueryException("Unsupported sortBy '" + sortBy + "'. Allowed: "
+                + String.join(", ", new TreeSet<>(StudentRepository.SORTABLE_FIELDS)));
+        }
     }
     
     public CompletableFuture<StudentResponseDto> updateStudent(String id, StudentRequestDto requestDto) {
@@ -95,8 +232,7 @@ public class StudentService {
                     
                 return studentRepository.save(updatedStudent);
             })
-            .thenCompose(savedId -> studentRepository.findById(savedId))
-            .thenApply(this::mapToResponseDto);
+            .thenApply(StudentService::mapToResponseDto);
     }
     
     public CompletableFuture<Void> deleteStudent(String id) {
@@ -109,7 +245,160 @@ public class StudentService {
             });
     }
     
-    private StudentResponseDto mapToResponseDto(Student student) {
+    public CompletableFuture<BulkResponse<StudentResponseDto>> createStudents(List<StudentRequestDto> requests) {
+        BulkOperations.checkSize(requests.size(), properties.getBulk());
+        log.info("Service: Bulk creating {} students", requests.size());
+        
+        List<BulkItemResult<StudentResponseDto>> results = new ArrayList<>();
+        List<Slot<Student>> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(new Slot<>(i, buildStudent(null, requests.get(i), null)));
+            } else {
+                results.add(BulkItemResult.failure(i, null, BulkItemResult.Status.INVALID, errors));
+            }
+        }
+        
+        return BulkOperations.processInChunks(valid, properties.getBulk(), chunk -> saveChunk(chunk, BulkItemResult.Status.CREATED))
+            .thenApply(written -> {
+                results.addAll(written);
+                return BulkResponse.of(results);
+            });
+    }
+    
+    public CompletableFuture<BulkResponse<StudentResponseDto>> updateStudents(List<StudentBulkUpdateDto> requests) {
+        BulkOperations.checkSize(requests.size(), properties.getBulk());
+        log.info("Service: Bulk updating {} students", requests.size());
+        
+        List<BulkItemResult<StudentResponseDto>> results = new ArrayList<>();
+        List<Slot<StudentBulkUpdateDto>> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(new Slot<>(i, requests.get(i)));
+            } else {
+                results.add(BulkItemResult.failure(i, requests.get(i).getId(), BulkItemResult.Status.INVALID, errors));
+            }
+        }
+        
+        return BulkOperations.processInChunks(valid, properties.getBulk(), this::updateChunk)
+            .thenApply(written -> {
+                results.addAll(written);
+                return BulkResponse.of(results);
+            });
+    }
+    
+    public CompletableFuture<BulkResponse<StudentResponseDto>> deleteStudents(List<String> ids) {
+        BulkOperations.checkSize(ids.size(), properties.getBulk());
+        log.info("Service: Bulk deleting {} students", ids.size());
+        
+        List<BulkItemResult<StudentResponseDto>> results = new ArrayList<>();
+        List<Slot<String>> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null || ids.get(i).isBlank()) {
+                results.add(BulkItemResult.failure(i, ids.get(i), BulkItemResult.Status.INVALID, List.of("Id is required")));
+            } else {
+                valid.add(new Slot<>(i, ids.get(i)));
+            }
+        }
+        
+        return BulkOperations.processInChunks(valid, properties.getBulk(), this::deleteChunk)
+            .thenApply(deleted -> {
+                results.addAll(deleted);
+                return BulkResponse.of(results);
+            });
+    }
+    
+    private CompletableFuture<List<BulkItemResult<StudentResponseDto>>> saveChunk(
+            List<Slot<Student>> chunk, BulkItemResult.Status status) {
+        List<Student> students = chunk.stream().map(Slot::value).collect(Collectors.toList());
+        
+        return studentRepository.saveAll(students)
+            .handle((saved, throwable) -> chunk.stream()
+                .map(slot -> throwable == null
+                    ? BulkItemResult.success(slot.index(), slot.value().getId(), status, mapToResponseDto(slot.value()))
+                    : BulkItemResult.<StudentResponseDto>failure(slot.index(), slot.value().getId(),
+                        BulkItemResult.Status.FAILED, List.of(BulkOperations.describe(throwable))))
+                .collect(Collectors.toList()));
+    }
+    
+    private CompletableFuture<List<BulkItemResult<StudentResponseDto>>> updateChunk(List<Slot<StudentBulkUpdateDto>> chunk) {
+        List<String> ids = chunk.stream().map(slot -> slot.value().getId()).collect(Collectors.toList());
+        
+        return studentRepository.findAllById(ids)
+            .thenCompose(existing -> {
+                List<BulkItemResult<StudentResponseDto>> missing = new ArrayList<>();
+                List<Slot<Student>> toSave = new ArrayList<>();
+                for (Slot<StudentBulkUpdateDto> slot : chunk) {
+                    Student current = existing.get(slot.value().getId());
+                    if (current == null) {
+                        missing.add(BulkItemResult.failure(slot.index(), slot.value().getId(), BulkItemResult.Status.NOT_FOUND,
+                            List.of("Student not found with id: " + slot.value().getId())));
+                    } else {
+                        toSave.add(new Slot<>(slot.index(), buildStudent(current.getId(), slot.value(), current.getCreatedAt())));
+                    }
+                }
+                if (toSave.isEmpty()) {
+                    return CompletableFuture.completedFuture(missing);
+                }
+                return saveChunk(toSave, BulkItemResult.Status.UPDATED)
+                    .thenApply(updated -> {
+                        missing.addAll(updated);
+                        return missing;
+                    });
+            })
+            .exceptionally(throwable -> failChunk(chunk, slot -> slot.value().getId(), throwable));
+    }
+    
+    private CompletableFuture<List<BulkItemResult<StudentResponseDto>>> deleteChunk(List<Slot<String>> chunk) {
+        List<String> ids = chunk.stream().map(Slot::value).collect(Collectors.toList());
+        
+        return studentRepository.findAllById(ids)
+            .thenCompose(existing -> {
+                List<String> toDelete = ids.stream().filter(existing::containsKey).distinct().collect(Collectors.toList());
+                CompletableFuture<Void> deleted = toDelete.isEmpty()
+                    ? CompletableFuture.completedFuture(null)
+                    : studentRepository.deleteAllById(toDelete);
+                return deleted.thenApply(v -> chunk.stream()
+                    .map(slot -> existing.containsKey(slot.value())
+                        ? BulkItemResult.<StudentResponseDto>success(slot.index(), slot.value(), BulkItemResult.Status.DELETED, null)
+                        : BulkItemResult.<StudentResponseDto>failure(slot.index(), slot.value(), BulkItemResult.Status.NOT_FOUND,
+                            List.of("Student not found with id: " + slot.value())))
+                    .collect(Collectors.toList()));
+            })
+            .exceptionally(throwable -> failChunk(chunk, Slot::value, throwable));
+    }
+    
+    private <T> List<BulkItemResult<StudentResponseDto>> failChunk(List<Slot<T>> chunk, Function<Slot<T>, String> idOf,
+                                                                  Throwable throwable) {
+        log.error("Service: Bulk chunk of {} students failed: {}", chunk.size(), throwable.getMessage());
+        return chunk.stream()
+            .map(slot -> BulkItemResult.<StudentResponseDto>failure(slot.index(), idOf.apply(slot),
+                BulkItemResult.Status.FAILED, List.of(BulkOperations.describe(throwable))))
+            .collect(Collectors.toList());
+    }
+    
+    private List<String> validate(Object request) {
+        return validator.validate(request).stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+    
+    private Student buildStudent(String id, StudentRequestDto requestDto, Timestamp createdAt) {
+        return Student.builder()
+            .id(id)
+            .title(requestDto.getTitle())
+            .name(requestDto.getName())
+            .address(requestDto.getAddress())
+            .city(requestDto.getCity())
+            .course(requestDto.getCourse())
+            .createdAt(createdAt)
+            .build();
+    }
+    
+    static StudentResponseDto mapToResponseDto(Student student) {
         return StudentResponseDto.builder()
             .id(student.getId())
             .title(student.getTitle())
@@ -121,4 +410,21 @@ public class StudentService {
             .updatedAt(student.getUpdatedAt())
             .build();
     }
+    
+    // Copies only the requested fields; the id is always included
+    static StudentResponseDto mapToResponseDto(Student student, Set<String> fields) {
+        if (fields.isEmpty()) {
+            return mapToResponseDto(student);
+        }
+        return new SparseStudentResponseDto(StudentResponseDto.builder()
+            .id(student.getId())
+            .title(fields.contains("title") ? student.getTitle() : null)
+            .name(fields.contains("name") ? student.getName() : null)
+            .address(fields.contains("address") ? student.getAddress() : null)
+            .city(fields.contains("city") ? student.getCity() : null)
+            .course(fields.contains("course") ? student.getCourse() : null)
+            .createdAt(fields.contains("createdAt") ? student.getCreatedAt() : null)
+            .updatedAt(fields.contains("updatedAt") ? student.getUpdatedAt() : null)
+            .build());
+    }
 }
\ No newline at end of file
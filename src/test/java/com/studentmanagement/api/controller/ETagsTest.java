@@ -0,0 +1,85 @@
+package com.studentmanagement.api.controller;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.dto.PageResponse;
+import com.studentmanagement.api.dto.StudentResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ETagsTest {
+
+	@Test
+	void tagChangesOnlyWithTheDocumentVersion() {
+		StudentResponseDto student = student("s1", 100);
+
+		assertEquals(ETags.of(student), ETags.of(student("s1", 100)));
+		assertNotEquals(ETags.of(student), ETags.of(student("s1", 101)));
+		assertNotEquals(ETags.of(student), ETags.of(student("s2", 100)));
+	}
+
+	@Test
+	void matchingIfNoneMatchReturnsNotModifiedWithoutBody() {
+		StudentResponseDto student = student("s1", 100);
+		String etag = ETags.of(student);
+
+		ResponseEntity<StudentResponseDto> notModified = ETags.conditional("\"other\", W/" + etag, etag, student);
+		ResponseEntity<StudentResponseDto> modified = ETags.conditional("\"other\"", etag, student);
+
+		assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+		assertNull(notModified.getBody());
+		assertEquals(etag, notModified.getHeaders().getETag());
+		assertEquals(HttpStatus.OK, modified.getStatusCode());
+		assertEquals(etag, modified.getHeaders().getETag());
+	}
+
+	@Test
+	void pageTagCoversItemsAndTotals() {
+		String etag = pageTag(Set.of(), 2, student("s1", 100), student("s2", 100));
+
+		assertEquals(etag, pageTag(Set.of(), 2, student("s1", 100), student("s2", 100)));
+		assertNotEquals(etag, pageTag(Set.of(), 2, student("s1", 100), student("s2", 101)));
+		assertNotEquals(etag, pageTag(Set.of(), 3, student("s1", 100), student("s2", 100)));
+	}
+
+	@Test
+	void pageTagCoversTheFieldsAndTheExpansion() {
+		String full = pageTag(Set.of(), 2, student("s1", 100), student("s2", 100));
+		String sparse = pageTag(new LinkedHashSet<>(List.of("id", "name")), 2, student("s1", 100), student("s2", 100));
+
+		assertNotEquals(full, sparse);
+		assertNotEquals(sparse, pageTag(Set.of("id"), 2, student("s1", 100), student("s2", 100)));
+		// The same fields in another order are the same representation
+		assertEquals(sparse, pageTag(new LinkedHashSet<>(List.of("name", "id")), 2, student("s1", 100),
+				student("s2", 100)));
+
+		PageResponse<StudentResponseDto> page = PageResponse.of(List.of(student("s1", 100)), pageRequest(), 1);
+		assertNotEquals(ETags.ofPage(page, Set.of(), false, ETags::version),
+				ETags.ofPage(page, Set.of(), true, ETags::version));
+	}
+
+	private static String pageTag(Set<String> fields, long total, StudentResponseDto... students) {
+		return ETags.ofPage(PageResponse.of(List.of(students), pageRequest(), total), fields, false, ETags::version);
+	}
+
+	private static PageRequest pageRequest() {
+		return PageRequest.builder().page(0).size(2).sortBy("name").build();
+	}
+
+	private static StudentResponseDto student(String id, long updatedAtSeconds) {
+		return StudentResponseDto.builder()
+				.id(id)
+				.name("Student " + id)
+				.updatedAt(Timestamp.ofTimeSecondsAndNanos(updatedAtSeconds, 0))
+				.build();
+	}
+}
@@ -0,0 +1,22 @@
+package com.studentmanagement.api.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryParamsTest {
+
+	@Test
+	void absentOrBlankFieldsMeanEveryField() {
+		assertEquals(Set.of(), QueryParams.fields(null));
+		assertEquals(Set.of(), QueryParams.fields(" "));
+	}
+
+	@Test
+	void fieldsAreTrimmedDeduplicatedAndKeepTheirOrder() {
+		assertEquals(List.of("name", "id", "course"), List.copyOf(QueryParams.fields("name, id,,course,name ")));
+	}
+}
@@ -0,0 +1,47 @@
+package com.studentmanagement.api.controller;
+
+import com.studentmanagement.api.repository.Fetched;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class StaleResponsesTest {
+
+	@Test
+	void freshResultsLeaveTheResponseAlone() {
+		ResponseEntity<String> response = ResponseEntity.ok().eTag("\"v1\"").body("body");
+
+		assertSame(response, StaleResponses.flag(response, Fetched.fresh("body")));
+	}
+
+	@Test
+	void staleResultsAddWarningAndAgeKeepingTheRest() {
+		ResponseEntity<String> response = ResponseEntity.ok().eTag("\"v1\"").body("body");
+		Fetched<String> stale = new Fetched<>("body", Instant.ofEpochSecond(100));
+
+		ResponseEntity<String> flagged = StaleResponses.flag(response, stale, Instant.ofEpochSecond(130));
+
+		assertEquals(HttpStatus.OK, flagged.getStatusCode());
+		assertEquals("body", flagged.getBody());
+		assertEquals("\"v1\"", flagged.getHeaders().getETag());
+		assertEquals(StaleResponses.STALE_WARNING, flagged.getHeaders().getFirst(HttpHeaders.WARNING));
+		assertEquals("30", flagged.getHeaders().getFirst(HttpHeaders.AGE));
+	}
+
+	@Test
+	void notModifiedResponsesAreFlaggedToo() {
+		ResponseEntity<String> response = ETags.conditional("\"v1\"", "\"v1\"", "body");
+		Fetched<String> stale = new Fetched<>("body", Instant.ofEpochSecond(100));
+
+		ResponseEntity<String> flagged = StaleResponses.flag(response, stale, Instant.ofEpochSecond(100));
+
+		assertEquals(HttpStatus.NOT_MODIFIED, flagged.getStatusCode());
+		assertEquals("0", flagged.getHeaders().getFirst(HttpHeaders.AGE));
+	}
+}
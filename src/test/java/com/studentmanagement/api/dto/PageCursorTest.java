@@ -0,0 +1,40 @@
+package com.studentmanagement.api.dto;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.exception.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+	@Test
+	void roundTripsTimestampCursor() {
+		PageCursor cursor = new PageCursor("createdAt", PageRequest.SortDirection.DESC,
+				PageCursor.Position.AFTER, Timestamp.ofTimeSecondsAndNanos(1700000000L, 123000), "abc");
+
+		assertEquals(cursor, PageCursor.decode(cursor.encode()));
+	}
+
+	@Test
+	void roundTripsStringAndNullValues() {
+		PageCursor byName = new PageCursor("name", PageRequest.SortDirection.ASC,
+				PageCursor.Position.BEFORE, "Eranga", "id-1");
+		PageCursor byMissing = new PageCursor("city", PageRequest.SortDirection.ASC,
+				PageCursor.Position.AFTER, null, "id-2");
+
+		assertEquals(byName, PageCursor.decode(byName.encode()));
+		assertEquals(byMissing, PageCursor.decode(byMissing.encode()));
+	}
+
+	@Test
+	void rejectsGarbageAndMismatchedOrdering() {
+		assertThrows(InvalidQueryException.class, () -> PageCursor.decode("not-a-cursor"));
+
+		PageCursor cursor = new PageCursor("name", PageRequest.SortDirection.ASC,
+				PageCursor.Position.AFTER, "Eranga", "id-1");
+		PageRequest request = PageRequest.builder().sortBy("createdAt").build();
+		assertThrows(InvalidQueryException.class, () -> cursor.verifyMatches(request));
+	}
+}
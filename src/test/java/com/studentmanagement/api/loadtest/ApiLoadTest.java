@@ -0,0 +1,283 @@
+package com.studentmanagement.api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.Firestore;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.loadtest.LoadTestSettings.Operation;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.model.Student;
+import com.studentmanagement.api.repository.CourseRepository;
+import com.studentmanagement.api.repository.StudentRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test of the student and course endpoints against the Firestore emulator.
+ *
+ * Requests are started on a fixed schedule (an open workload) rather than one after another, so a slow
+ * response does not hold back the next request, and latency is measured from the scheduled start time.
+ * That way queueing inside the API shows up in the percentiles instead of lowering the request rate.
+ *
+ * Excluded from the normal build; run it with
+ * {@code FIRESTORE_EMULATOR_HOST=127.0.0.1:8085 ./mvnw -Ploadtest test} and see {@link LoadTestSettings}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "logging.level.com.studentmanagement=INFO")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ApiLoadTest {
+
+	private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Jaffna", "Negombo", "Matara"};
+	private static final int PAGE_SIZE = 20;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private Firestore firestore;
+
+	@Autowired
+	private FirestoreProperties properties;
+
+	private final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	@BeforeAll
+	void seed() throws Exception {
+		assertTrue(properties.getEmulator().isEnabled(),
+				"Load tests only run against the Firestore emulator; set FIRESTORE_EMULATOR_HOST");
+		clearEmulator();
+
+		long started = System.nanoTime();
+		try (BulkWriter writer = firestore.bulkWriter()) {
+			for (int i = 0; i < settings.courses(); i++) {
+				String id = courseId(i);
+				writer.set(firestore.collection(CourseRepository.COLLECTION_NAME).document(id), Course.builder()
+						.id(id)
+						.name("Course " + i)
+						.fee(BigDecimal.valueOf(10_000 + i * 250L, 2))
+						.lecturerId("lecturer-" + (i % 10))
+						.lecturerName("Lecturer " + (i % 10))
+						.build());
+			}
+			for (int i = 0; i < settings.students(); i++) {
+				String id = studentId(i);
+				writer.set(firestore.collection(StudentRepository.COLLECTION_NAME).document(id), Student.builder()
+						.id(id)
+						.title(i % 2 == 0 ? "Mr" : "Ms")
+						.name("Student " + i)
+						.address(i + " Main Street")
+						.city(CITIES[i % CITIES.length])
+						.course(courseId(i % settings.courses()))
+						.build());
+			}
+		}
+		System.out.printf("Seeded %d students and %d courses in %d ms%n", settings.students(), settings.courses(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+	}
+
+	@Test
+	void mixedWorkloadMeetsLatencyAndThroughputTargets() throws IOException {
+		Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+		Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			latencies.put(operation, new ConcurrentHistogram(3));
+			errors.put(operation, new LongAdder());
+		}
+		LongAccumulator lastCompletion = new LongAccumulator(Math::max, 0);
+
+		Random random = new Random(settings.seed());
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+		long start = System.nanoTime();
+		long measureFrom = start + settings.warmup().toNanos();
+		long end = measureFrom + settings.duration().toNanos();
+
+		try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long i = 0; ; i++) {
+				long scheduled = start + i * intervalNanos;
+				if (scheduled >= end) {
+					break;
+				}
+				long wait = scheduled - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				Operation operation = settings.pick(random);
+				HttpRequest request = request(operation, random);
+				boolean measured = scheduled >= measureFrom;
+				workers.execute(() -> {
+					boolean failed;
+					try {
+						int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+						failed = status >= 400;
+					} catch (IOException | InterruptedException e) {
+						failed = true;
+					}
+					long completed = System.nanoTime();
+					if (measured) {
+						latencies.get(operation).recordValue(completed - scheduled);
+						lastCompletion.accumulate(completed);
+						if (failed) {
+							errors.get(operation).increment();
+						}
+					}
+				});
+			}
+		}
+
+		Histogram overall = new Histogram(3);
+		latencies.values().forEach(overall::add);
+		long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+		double measuredSeconds = Math.max(lastCompletion.get() - measureFrom, 1) / 1e9;
+		double throughput = overall.getTotalCount() / measuredSeconds;
+		double errorRate = overall.getTotalCount() == 0 ? 1 : (double) totalErrors / overall.getTotalCount();
+
+		report(latencies, errors, overall, totalErrors, throughput);
+
+		assertAll(
+				() -> assertTrue(overall.getTotalCount() > 0, "No requests completed in the measured window"),
+				() -> assertTrue(millis(overall, 50) <= settings.maxP50Millis(),
+						String.format("p50 %.1f ms exceeds %.1f ms", millis(overall, 50), settings.maxP50Millis())),
+				() -> assertTrue(millis(overall, 99) <= settings.maxP99Millis(),
+						String.format("p99 %.1f ms exceeds %.1f ms", millis(overall, 99), settings.maxP99Millis())),
+				() -> assertTrue(millis(overall, 99.9) <= settings.maxP999Millis(),
+						String.format("p999 %.1f ms exceeds %.1f ms", millis(overall, 99.9), settings.maxP999Millis())),
+				() -> assertTrue(errorRate <= settings.maxErrorRate(),
+						String.format("error rate %.4f exceeds %.4f", errorRate, settings.maxErrorRate())),
+				() -> assertTrue(throughput >= settings.rate() * settings.minThroughputRatio(),
+						String.format("throughput %.1f req/s is below %.0f%% of the %d req/s target",
+								throughput, settings.minThroughputRatio() * 100, settings.rate())));
+	}
+
+	private HttpRequest request(Operation operation, Random random) {
+		String studentId = studentId(random.nextInt(settings.students()));
+		return switch (operation) {
+			case READ -> get("/api/v1/student/" + studentId);
+			case COURSE -> get("/api/v1/courses/" + courseId(random.nextInt(settings.courses())));
+			case PAGE -> {
+				int lastPage = Math.max(1, Math.min(5, settings.students() / PAGE_SIZE));
+				String path = "/api/v1/students/paginated?size=" + PAGE_SIZE + "&page=" + random.nextInt(lastPage);
+				yield get(random.nextInt(3) == 0 ? path + "&city=" + CITIES[random.nextInt(CITIES.length)] : path);
+			}
+			case WRITE -> {
+				String body = String.format(
+						"{\"title\":\"Mr\",\"name\":\"Student %d\",\"address\":\"%d Main Street\",\"city\":\"%s\",\"course\":\"%s\"}",
+						random.nextInt(1_000_000), random.nextInt(1_000), CITIES[random.nextInt(CITIES.length)],
+						courseId(random.nextInt(settings.courses())));
+				yield HttpRequest.newBuilder(uri("/api/v1/student/" + studentId))
+						.timeout(Duration.ofSeconds(30))
+						.header("Content-Type", "application/json")
+						.PUT(HttpRequest.BodyPublishers.ofString(body))
+						.build();
+			}
+		};
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	// Emulator-only endpoint that deletes every document, so each run starts from the same data
+	private void clearEmulator() throws IOException, InterruptedException {
+		FirestoreProperties.Emulator emulator = properties.getEmulator();
+		URI uri = URI.create("http://" + emulator.getHost() + "/emulator/v1/projects/" + emulator.getProjectId()
+				+ "/databases/(default)/documents");
+		int status = client.send(HttpRequest.newBuilder(uri).DELETE().build(), HttpResponse.BodyHandlers.discarding())
+				.statusCode();
+		assertEquals(200, status, "Could not clear the Firestore emulator at " + emulator.getHost());
+	}
+
+	private void report(Map<Operation, Histogram> latencies, Map<Operation, LongAdder> errors, Histogram overall,
+						long totalErrors, double throughput) throws IOException {
+		System.out.printf("%nTarget %d req/s for %ds after %ds warm-up; achieved %.1f req/s%n", settings.rate(),
+				settings.duration().toSeconds(), settings.warmup().toSeconds(), throughput);
+		System.out.printf("%-8s %9s %7s %10s %10s %10s %10s%n", "op", "requests", "errors", "p50 ms", "p99 ms",
+				"p999 ms", "max ms");
+		Map<String, Object> results = new LinkedHashMap<>();
+		List<Map<String, Object>> operations = new ArrayList<>();
+		latencies.forEach((operation, histogram) -> {
+			if (histogram.getTotalCount() > 0) {
+				print(operation.name().toLowerCase(), histogram, errors.get(operation).sum());
+				operations.add(summary(operation.name().toLowerCase(), histogram, errors.get(operation).sum()));
+			}
+		});
+		print("all", overall, totalErrors);
+
+		results.put("settings", settings.toString());
+		results.put("throughput", throughput);
+		results.put("overall", summary("all", overall, totalErrors));
+		results.put("operations", operations);
+		Files.createDirectories(settings.resultFile().toAbsolutePath().getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(settings.resultFile().toFile(), results);
+	}
+
+	private static void print(String name, Histogram histogram, long errors) {
+		System.out.printf("%-8s %9d %7d %10.1f %10.1f %10.1f %10.1f%n", name, histogram.getTotalCount(), errors,
+				millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+				histogram.getMaxValue() / 1e6);
+	}
+
+	private static Map<String, Object> summary(String name, Histogram histogram, long errors) {
+		Map<String, Object> summary = new LinkedHashMap<>();
+		summary.put("operation", name);
+		summary.put("requests", histogram.getTotalCount());
+		summary.put("errors", errors);
+		summary.put("p50Ms", millis(histogram, 50));
+		summary.put("p99Ms", millis(histogram, 99));
+		summary.put("p999Ms", millis(histogram, 99.9));
+		summary.put("maxMs", histogram.getMaxValue() / 1e6);
+		return summary;
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1e6;
+	}
+
+	private static String studentId(int index) {
+		return String.format("loadtest-student-%06d", index);
+	}
+
+	private static String courseId(int index) {
+		return String.format("loadtest-course-%04d", index);
+	}
+}
@@ -0,0 +1,91 @@
+package com.studentmanagement.api.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Load test knobs, read from system properties so they can be passed on the Maven command line,
+ * e.g. {@code -Dloadtest.rate=500 -Dloadtest.max-p99-ms=150}.
+ */
+record LoadTestSettings(
+		int students,
+		int courses,
+		int rate,
+		Duration warmup,
+		Duration duration,
+		Map<Operation, Integer> mix,
+		long seed,
+		double maxP50Millis,
+		double maxP99Millis,
+		double maxP999Millis,
+		double maxErrorRate,
+		double minThroughputRatio,
+		Path resultFile) {
+
+	enum Operation {
+		// GET /student/{id}
+		READ,
+		// GET /students/paginated, a third of them filtered by city
+		PAGE,
+		// GET /courses/{id}
+		COURSE,
+		// PUT /student/{id} on a seeded student, so the data volume stays the same across runs
+		WRITE
+	}
+
+	static LoadTestSettings fromSystemProperties() {
+		return new LoadTestSettings(
+				Integer.getInteger("loadtest.students", 2_000),
+				Integer.getInteger("loadtest.courses", 50),
+				Integer.getInteger("loadtest.rate", 200),
+				Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10)),
+				Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60)),
+				parseMix(System.getProperty("loadtest.mix", "read=50,page=25,course=10,write=15")),
+				Long.getLong("loadtest.seed", 42),
+				doubleProperty("loadtest.max-p50-ms", 50),
+				doubleProperty("loadtest.max-p99-ms", 250),
+				doubleProperty("loadtest.max-p999-ms", 1_000),
+				doubleProperty("loadtest.max-error-rate", 0.001),
+				doubleProperty("loadtest.min-throughput-ratio", 0.95),
+				Path.of(System.getProperty("loadtest.result-file", "target/loadtest-result.json")));
+	}
+
+	// Draws an operation with probability proportional to its weight in the mix
+	Operation pick(Random random) {
+		int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int roll = random.nextInt(total);
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Empty mix");
+	}
+
+	private static Map<Operation, Integer> parseMix(String value) {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		for (String part : value.split(",")) {
+			String[] weight = part.trim().split("=");
+			if (weight.length != 2) {
+				throw new IllegalArgumentException("loadtest.mix entries look like read=50, got '" + part + "'");
+			}
+			int share = Integer.parseInt(weight[1].trim());
+			if (share > 0) {
+				mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), share);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+		}
+		return mix;
+	}
+
+	private static double doubleProperty(String name, double defaultValue) {
+		String value = System.getProperty(name);
+		return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value);
+	}
+}
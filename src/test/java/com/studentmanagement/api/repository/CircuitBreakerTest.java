@@ -0,0 +1,80 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+	private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+	private static final long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+	private final List<String> transitions = new ArrayList<>();
+
+	private CircuitBreaker breaker(Duration openDuration) {
+		FirestoreProperties.CircuitBreaker properties = new FirestoreProperties.CircuitBreaker();
+		properties.setWindowSize(10);
+		properties.setMinimumCalls(4);
+		properties.setOpenDuration(openDuration);
+		properties.setHalfOpenProbes(2);
+		return new CircuitBreaker(properties, (from, to) -> transitions.add(from + "->" + to));
+	}
+
+	@Test
+	void opensOnceTheFailureRateIsReached() {
+		CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, true);
+		breaker.onResult(FAST, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+		breaker.onResult(FAST, true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertFalse(breaker.tryAcquire());
+		assertTrue(breaker.retryAfter().toSeconds() > 0);
+	}
+
+	@Test
+	void slowCallsOpenItToo() {
+		CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+		for (int i = 0; i < 4; i++) {
+			breaker.onResult(SLOW, false);
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+	}
+
+	@Test
+	void halfOpenProbesCloseOrReopenIt() {
+		CircuitBreaker breaker = breaker(Duration.ZERO);
+		for (int i = 0; i < 4; i++) {
+			breaker.onResult(FAST, true);
+		}
+
+		assertTrue(breaker.tryAcquire());
+		assertTrue(breaker.tryAcquire());
+		assertFalse(breaker.tryAcquire());
+		breaker.onResult(FAST, true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+		assertTrue(breaker.tryAcquire());
+		assertTrue(breaker.tryAcquire());
+		breaker.onResult(FAST, false);
+		breaker.onResult(FAST, false);
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+		assertEquals(0.0, breaker.failureRate());
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN", "OPEN->HALF_OPEN",
+				"HALF_OPEN->CLOSED"), transitions);
+	}
+}
@@ -0,0 +1,49 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CollectionCounterTest {
+
+	private CompletableFuture<Fetched<Long>> query = new CompletableFuture<>();
+
+	private CollectionCounter counter() {
+		FirestoreProperties.Count properties = new FirestoreProperties.Count();
+		properties.setMode(FirestoreProperties.CountMode.APPROXIMATE);
+		properties.setRefreshInterval(Duration.ofHours(1));
+		return new CollectionCounter("students", properties, () -> query);
+	}
+
+	@Test
+	void adjustsTheAggregateOnLocalWrites() {
+		CollectionCounter counter = counter();
+		query.complete(Fetched.fresh(10L));
+		assertEquals(10L, counter.get().join().value());
+
+		counter.increment();
+		counter.increment();
+		counter.decrement();
+
+		assertEquals(11L, counter.get().join().value());
+	}
+
+	@Test
+	void keepsWritesMadeWhileTheAggregateIsRunning() {
+		CollectionCounter counter = counter();
+		CompletableFuture<Fetched<Long>> first = counter.get();
+
+		// Acknowledged after the query was sent, so not in its result
+		counter.increment();
+		counter.increment();
+		counter.decrement();
+		query.complete(Fetched.fresh(10L));
+
+		assertEquals(10L, first.join().value());
+		assertEquals(11L, counter.get().join().value());
+	}
+}
@@ -0,0 +1,69 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.model.Student;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CollectionReplicaTest {
+
+	private CollectionReplica<Student> replica;
+
+	// The snapshot is handed over directly, so no Firestore collection is needed
+	private CollectionReplica<Student> replica(Duration maxLag) {
+		FirestoreProperties.Replica properties = new FirestoreProperties.Replica();
+		properties.setMaxLag(maxLag);
+		replica = new CollectionReplica<>("students", null, Student.class, Student::getUpdatedAt,
+				new ReplicaIndex<>(Student::getId, StudentRepository.SORT_FIELDS), properties, new SimpleMeterRegistry());
+		return replica;
+	}
+
+	@AfterEach
+	void stop() {
+		replica.stop();
+	}
+
+	private static Timestamp at(long seconds) {
+		return Timestamp.ofTimeSecondsAndNanos(seconds, 0);
+	}
+
+	private static Student student(String id, Timestamp updatedAt) {
+		return Student.builder().id(id).name(id).updatedAt(updatedAt).build();
+	}
+
+	@Test
+	void initialSnapshotClearsWritesItAlreadyReflects() {
+		CollectionReplica<Student> replica = replica(Duration.ofMinutes(1));
+		replica.writeAcknowledged("inSnapshot", at(100));
+		replica.writeAcknowledged("beforeReadTime", at(80));
+		replica.deleteAcknowledged("deleted", at(85));
+		replica.writeAcknowledged("newer", at(200));
+
+		replica.applyInitialSnapshot(List.of(student("inSnapshot", at(100)), student("beforeReadTime", at(80))),
+				at(90));
+
+		assertTrue(replica.isServing());
+		assertTrue(replica.canServe("inSnapshot"));
+		assertTrue(replica.canServe("beforeReadTime"));
+		assertTrue(replica.canServe("deleted"));
+		assertFalse(replica.canServe("newer"));
+	}
+
+	@Test
+	void stopsServingWhileAWriteStaysUndelivered() {
+		CollectionReplica<Student> replica = replica(Duration.ZERO);
+		replica.writeAcknowledged("newer", at(200));
+
+		replica.applyInitialSnapshot(List.of(), at(90));
+
+		assertFalse(replica.isServing());
+	}
+}
@@ -0,0 +1,99 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ConcurrencyLimiter limiter(int initialLimit) {
+		FirestoreProperties.Limiter properties = new FirestoreProperties.Limiter();
+		properties.setInitialLimit(initialLimit);
+		properties.setMinLimit(2);
+		properties.setBulkShare(0.5);
+		properties.setLatencyTarget(Duration.ofMillis(100));
+		return new ConcurrencyLimiter(properties, meterRegistry);
+	}
+
+	@Test
+	void bulkCallsAreShedBeforeSingleRecordCalls() {
+		ConcurrencyLimiter limiter = limiter(4);
+
+		assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.BULK));
+		assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.BULK));
+		assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.BULK));
+		assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.SINGLE));
+		assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.SINGLE));
+		assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.SINGLE));
+
+		assertEquals(1.0, meterRegistry.counter("firestore.limiter.rejected", "priority", "bulk").count());
+		assertEquals(1.0, meterRegistry.counter("firestore.limiter.rejected", "priority", "single").count());
+		assertEquals(4.0, meterRegistry.get("firestore.limiter.in.flight").gauge().value());
+	}
+
+	@Test
+	void slowCallsShrinkTheLimitAndFastCallsGrowItBack() {
+		ConcurrencyLimiter limiter = limiter(10);
+		long slow = TimeUnit.MILLISECONDS.toNanos(500);
+		long fast = TimeUnit.MILLISECONDS.toNanos(10);
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.SINGLE));
+		}
+		for (int i = 0; i < 5; i++) {
+			limiter.onSuccess(ConcurrencyLimiter.Priority.SINGLE, slow);
+		}
+		// A burst of slow answers backs off once
+		assertEquals(9.0, limiter.limit(), 1e-9);
+
+		for (int i = 0; i < 9; i++) {
+			assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.SINGLE));
+		}
+		for (int i = 0; i < 9; i++) {
+			limiter.onSuccess(ConcurrencyLimiter.Priority.SINGLE, fast);
+		}
+		assertTrue(limiter.limit() > 9.0);
+		assertEquals(limiter.limit(), meterRegistry.get("firestore.limiter.limit").gauge().value(), 1e-9);
+	}
+
+	@Test
+	void slowBulkCallsDoNotShrinkTheLimit() {
+		ConcurrencyLimiter limiter = limiter(10);
+
+		assertTrue(limiter.tryAcquire(ConcurrencyLimiter.Priority.BULK));
+		limiter.onSuccess(ConcurrencyLimiter.Priority.BULK, TimeUnit.SECONDS.toNanos(2));
+
+		assertEquals(10.0, limiter.limit(), 1e-9);
+	}
+
+	@Test
+	void internalCallsAreNeverShed() {
+		ConcurrencyLimiter limiter = limiter(2);
+		ConcurrencyLimiter.Priority priority = ConcurrencyLimiter.internal(
+				() -> ConcurrencyLimiter.priorityOf("saveAll"));
+
+		assertEquals(ConcurrencyLimiter.Priority.INTERNAL, priority);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(priority));
+		}
+		assertFalse(limiter.tryAcquire(ConcurrencyLimiter.Priority.SINGLE));
+		assertEquals(ConcurrencyLimiter.Priority.BULK, ConcurrencyLimiter.priorityOf("saveAll"));
+	}
+
+	@Test
+	void operationsOnSingleRecordsHaveSinglePriority() {
+		assertEquals(ConcurrencyLimiter.Priority.SINGLE, ConcurrencyLimiter.priorityOf("findById"));
+		assertEquals(ConcurrencyLimiter.Priority.SINGLE, ConcurrencyLimiter.priorityOf("save"));
+		assertEquals(ConcurrencyLimiter.Priority.BULK, ConcurrencyLimiter.priorityOf("findAllWithPagination"));
+		assertEquals(ConcurrencyLimiter.Priority.BULK, ConcurrencyLimiter.priorityOf("countMatching"));
+	}
+}
@@ -0,0 +1,113 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.EmbeddedStoreProperties;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.model.Student;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class EmbeddedStudentRepositoryTest {
+
+	@TempDir
+	Path directory;
+
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private EmbeddedStudentRepository repository;
+
+	private EmbeddedStudentRepository open() {
+		EmbeddedStoreProperties properties = new EmbeddedStoreProperties();
+		properties.setDirectory(directory.toString());
+		properties.setCompactionInterval(Duration.ZERO);
+		return new EmbeddedStudentRepository(properties, new SimpleMeterRegistry(), eventPublisher);
+	}
+
+	@BeforeEach
+	void setUp() {
+		repository = open();
+		repository.saveAll(List.of(student("e", "Eve", "Kandy"), student("a", "Ann", "Colombo"),
+				student("d", "Dan", "Colombo"), student("b", "Ben", "Galle"), student("c", "Cal", "Colombo"))).join();
+	}
+
+	@AfterEach
+	void tearDown() {
+		repository.close();
+	}
+
+	private static Student student(String id, String name, String city) {
+		return Student.builder().id(id).name(name).city(city).course("IT").build();
+	}
+
+	private static PageRequest byName(int page, int size) {
+		return PageRequest.builder().sortBy("name").sortDirection(PageRequest.SortDirection.ASC).page(page).size(size)
+				.build();
+	}
+
+	private static List<String> names(List<Student> students) {
+		return students.stream().map(Student::getName).toList();
+	}
+
+	@Test
+	void pagesInSortOrder() {
+		assertEquals(List.of("Ann", "Ben"), names(repository.findAllWithPagination(byName(0, 2)).join().value()));
+		assertEquals(List.of("Eve"), names(repository.findAllWithPagination(byName(2, 2)).join().value()));
+		assertEquals(5L, repository.count().join().value());
+	}
+
+	@Test
+	void filtersBeforePaging() {
+		PageRequest colombo = byName(1, 1).toBuilder().filters(Map.of("city", "Colombo")).build();
+
+		assertEquals(List.of("Cal"), names(repository.findAllWithPagination(colombo).join().value()));
+		assertEquals(3L, repository.count(Map.of("city", "Colombo")).join().value());
+		assertEquals(Set.of("Ann", "Cal", "Dan"),
+				Set.copyOf(names(repository.findAllMatching(Map.of("city", "Colombo"), Set.of()).join())));
+	}
+
+	@Test
+	void walksCursorPagesForward() {
+		PageRequest request = byName(0, 2).toBuilder().mode(PageRequest.PaginationMode.CURSOR).build();
+
+		CursorPage<Student> first = repository.findAllWithCursor(request).join().value();
+		CursorPage<Student> second = repository.findAllWithCursor(
+				request.toBuilder().cursor(first.getNextCursor()).build()).join().value();
+		CursorPage<Student> last = repository.findAllWithCursor(
+				request.toBuilder().cursor(second.getNextCursor()).build()).join().value();
+
+		assertEquals(List.of("Ann", "Ben"), names(first.getContent()));
+		assertEquals(List.of("Cal", "Dan"), names(second.getContent()));
+		assertEquals(List.of("Eve"), names(last.getContent()));
+		assertNull(last.getNextCursor());
+	}
+
+	@Test
+	void writesSurviveReopeningTheLog() {
+		repository.deleteById("b").join();
+		verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DocumentChangedEvent changed
+				&& changed.isDeletion() && changed.id().equals("b") && changed.deletedAt() != null));
+		repository.close();
+
+		repository = open();
+
+		assertEquals(4L, repository.count().join().value());
+		assertNull(repository.fetchById("b").join().value());
+		assertEquals("Ann", repository.fetchById("a").join().value().getName());
+		assertFalse(repository.fetchById("a").join().isStale());
+	}
+}
@@ -0,0 +1,66 @@
+package com.studentmanagement.api.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * firestore.indexes.json must hold a composite index for every filter combination and allowed sortBy.
+ * Run with -Dfirestore.indexes.write=true to regenerate the file after changing the field lists.
+ */
+class FirestoreIndexesTest {
+
+	private static final Path INDEXES_FILE = Path.of("firestore.indexes.json");
+
+	private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+	@Test
+	void indexFileCoversEveryFilterAndSortCombination() throws Exception {
+		JsonNode expected = studentIndexes();
+		if (Boolean.getBoolean("firestore.indexes.write")) {
+			Files.writeString(INDEXES_FILE, objectMapper.writeValueAsString(expected) + "\n");
+		}
+
+		assertEquals(expected, objectMapper.readTree(INDEXES_FILE.toFile()));
+	}
+
+	private JsonNode studentIndexes() {
+		List<String> filterFields = new ArrayList<>(new TreeSet<>(StudentRepository.FILTERABLE_FIELDS));
+		List<List<String>> filterCombinations = new ArrayList<>();
+		filterFields.forEach(field -> filterCombinations.add(List.of(field)));
+		if (filterFields.size() > 1) {
+			filterCombinations.add(filterFields);
+		}
+
+		ObjectNode root = objectMapper.createObjectNode();
+		ArrayNode indexes = root.putArray("indexes");
+		for (List<String> filters : filterCombinations) {
+			for (String sortBy : new TreeSet<>(StudentRepository.SORTABLE_FIELDS)) {
+				if (filters.contains(sortBy)) {
+					continue;
+				}
+				for (String order : List.of("ASCENDING", "DESCENDING")) {
+					ObjectNode index = indexes.addObject()
+							.put("collectionGroup", "students")
+							.put("queryScope", "COLLECTION");
+					ArrayNode fields = index.putArray("fields");
+					filters.forEach(filter -> fields.addObject().put("fieldPath", filter).put("order", "ASCENDING"));
+					fields.addObject().put("fieldPath", sortBy).put("order", order);
+				}
+			}
+		}
+		root.putArray("fieldOverrides");
+		return root;
+	}
+}
@@ -0,0 +1,125 @@
+package com.studentmanagement.api.repository;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedReadsTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	// Hedges wait here until the test lets the delay pass
+	private final List<Runnable> scheduled = new ArrayList<>();
+	private final List<Long> delays = new ArrayList<>();
+
+	private HedgedReads hedgedReads(double budget) {
+		FirestoreProperties.Hedging properties = new FirestoreProperties.Hedging();
+		properties.setEnabled(true);
+		properties.setMaxDelay(Duration.ofMillis(20));
+		properties.setBudget(budget);
+		ConcurrencyLimiter limiter = new ConcurrencyLimiter(new FirestoreProperties.Limiter(), meterRegistry);
+		return new HedgedReads(properties, limiter, meterRegistry, (task, delayNanos) -> {
+			scheduled.add(task);
+			delays.add(delayNanos);
+		});
+	}
+
+	private void delayPasses() {
+		List<Runnable> due = List.copyOf(scheduled);
+		scheduled.clear();
+		due.forEach(Runnable::run);
+	}
+
+	@Test
+	void slowFirstAttemptIsHedgedAndCancelledWhenTheHedgeAnswers() throws Exception {
+		SettableApiFuture<String> primary = SettableApiFuture.create();
+
+		ApiFuture<String> result = hedgedReads(0.05).hedge("students", "findById",
+				() -> ApiFutures.immediateFuture("hedge"), primary);
+		assertFalse(result.isDone());
+		// No latencies seen yet, so the hedge waits the full maxDelay
+		assertEquals(List.of(Duration.ofMillis(20).toNanos()), delays);
+		delayPasses();
+
+		assertEquals("hedge", result.get());
+		assertTrue(primary.isCancelled());
+		assertEquals(1.0, meterRegistry.counter("firestore.hedge.requests",
+				"collection", "students", "operation", "findById", "result", "won").count());
+	}
+
+	@Test
+	void fastFirstAttemptSendsNoHedge() throws Exception {
+		AtomicInteger hedges = new AtomicInteger();
+
+		ApiFuture<String> result = hedgedReads(0.05).hedge("students", "findById", () -> {
+			hedges.incrementAndGet();
+			return ApiFutures.immediateFuture("hedge");
+		}, ApiFutures.immediateFuture("primary"));
+		delayPasses();
+
+		assertEquals("primary", result.get());
+		assertEquals(0, hedges.get());
+	}
+
+	@Test
+	void hedgeOfAnInternalReadStaysInternal() throws Exception {
+		List<ConcurrencyLimiter.Priority> priorities = new ArrayList<>();
+		HedgedReads hedgedReads = hedgedReads(0.05);
+
+		ApiFuture<String> result = ConcurrencyLimiter.internal(() -> hedgedReads.hedge("students", "findAll", () -> {
+			priorities.add(ConcurrencyLimiter.priorityOf("findAll"));
+			return ApiFutures.immediateFuture("hedge");
+		}, SettableApiFuture.<String>create()));
+		// Sent from another thread, outside the internal() call that issued the read
+		delayPasses();
+
+		assertEquals("hedge", result.get());
+		assertEquals(List.of(ConcurrencyLimiter.Priority.INTERNAL), priorities);
+	}
+
+	@Test
+	void failedAttemptWaitsForTheOtherOne() {
+		SettableApiFuture<String> primary = SettableApiFuture.create();
+		SettableApiFuture<String> hedge = SettableApiFuture.create();
+
+		ApiFuture<String> result = hedgedReads(0.05).hedge("students", "findById", () -> hedge, primary);
+		delayPasses();
+		primary.setException(new IllegalStateException("unavailable"));
+		assertFalse(result.isDone());
+
+		hedge.setException(new IllegalStateException("still unavailable"));
+		ExecutionException thrown = assertThrows(ExecutionException.class, result::get);
+		assertEquals("still unavailable", thrown.getCause().getMessage());
+	}
+
+	@Test
+	void exhaustedBudgetSkipsHedges() throws Exception {
+		HedgedReads hedgedReads = hedgedReads(0.0);
+		for (int i = 0; i < 11; i++) {
+			SettableApiFuture<String> primary = SettableApiFuture.create();
+			ApiFuture<String> result = hedgedReads.hedge("courses", "findById",
+					() -> SettableApiFuture.<String>create(), primary);
+			delayPasses();
+			primary.set("primary");
+			assertEquals("primary", result.get());
+		}
+
+		assertEquals(10.0, meterRegistry.counter("firestore.hedge.requests",
+				"collection", "courses", "operation", "findById", "result", "sent").count());
+		assertEquals(1.0, meterRegistry.counter("firestore.hedge.requests",
+				"collection", "courses", "operation", "findById", "result", "skipped").count());
+	}
+}
@@ -0,0 +1,37 @@
+package com.studentmanagement.api.repository;
+
+import com.google.cloud.firestore.Query;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProjectionsTest {
+
+	@Test
+	void noFieldsReadsWholeDocuments() {
+		Query query = mock(Query.class);
+
+		assertSame(query, Projections.select(query, Set.of(), "createdAt"));
+		verifyNoInteractions(query);
+	}
+
+	@Test
+	void selectsTheFieldsTheIdAndRequiredFieldsOnce() {
+		Query query = mock(Query.class);
+		Query projected = mock(Query.class);
+		when(query.select("name", "city", "id", "createdAt")).thenReturn(projected);
+
+		Query result = Projections.select(query, new LinkedHashSet<>(List.of("name", "city", "id")), "createdAt");
+
+		assertSame(projected, result);
+		verify(query).select("name", "city", "id", "createdAt");
+	}
+}
@@ -0,0 +1,100 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.dto.PageCursor;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicaIndexTest {
+
+	private final ReplicaIndex<Student> index = new ReplicaIndex<>(Student::getId, StudentRepository.SORT_FIELDS);
+
+	private static Student student(String id, String name, String city) {
+		return Student.builder().id(id).name(name).city(city).build();
+	}
+
+	private static PageRequest byName(PageRequest.SortDirection direction, int page, int size) {
+		return PageRequest.builder().sortBy("name").sortDirection(direction).page(page).size(size).build();
+	}
+
+	private static List<String> ids(List<Student> students) {
+		return students.stream().map(Student::getId).toList();
+	}
+
+	@Test
+	void pagesByValueThenIdWithNullsFirst() {
+		index.put(student("c", "Bo", "Kandy"));
+		index.put(student("b", "Bo", "Colombo"));
+		index.put(student("a", "Al", "Colombo"));
+		index.put(student("d", null, "Galle"));
+
+		assertEquals(List.of("d", "a", "b", "c"), ids(index.findPage(byName(PageRequest.SortDirection.ASC, 0, 10))));
+		assertEquals(List.of("c", "b", "a", "d"), ids(index.findPage(byName(PageRequest.SortDirection.DESC, 0, 10))));
+		assertEquals(List.of("b", "c"), ids(index.findPage(byName(PageRequest.SortDirection.ASC, 1, 2))));
+	}
+
+	@Test
+	void offsetsCountOnlyMatchingEntities() {
+		index.put(student("a", "Al", "Colombo"));
+		index.put(student("b", "Bo", "Kandy"));
+		index.put(student("c", "Cy", "Colombo"));
+
+		List<Student> page = index.findPage(byName(PageRequest.SortDirection.ASC, 1, 1),
+				StudentRepository.matcher(Map.of("city", "Colombo")));
+
+		assertEquals(List.of("c"), ids(page));
+	}
+
+	@Test
+	void comparesStringsByUtf8BytesLikeFirestore() {
+		// U+FFFD sorts after a surrogate pair in UTF-16 but before it in UTF-8
+		index.put(student("\uD83D\uDE00", "x", "Colombo"));
+		index.put(student("\uFFFD", "x", "Colombo"));
+		index.put(student("z", "\uD83D\uDE00", "Colombo"));
+		index.put(student("y", "\uFFFD", "Colombo"));
+
+		assertEquals(List.of("\uFFFD", "\uD83D\uDE00"),
+				ids(index.findPage(byName(PageRequest.SortDirection.ASC, 0, 10)).subList(0, 2)));
+		assertEquals(List.of("y", "z"),
+				ids(index.findPage(byName(PageRequest.SortDirection.ASC, 0, 10)).subList(2, 4)));
+		assertTrue(ReplicaIndex.compareUtf8("\uFFFD", "\uD83D\uDE00") < 0);
+	}
+
+	@Test
+	void walksCursorPagesForwardAndBack() {
+		index.put(student("a", null, "Colombo"));
+		index.put(student("b", "Bo", "Colombo"));
+		index.put(student("c", "Cy", "Colombo"));
+		PageRequest request = byName(PageRequest.SortDirection.ASC, 0, 2);
+
+		CursorPage<Student> first = index.findCursorPage(request, null);
+		assertEquals(List.of("a", "b"), ids(first.getContent()));
+		assertNull(first.getPrevCursor());
+
+		CursorPage<Student> second = index.findCursorPage(request, PageCursor.decode(first.getNextCursor()));
+		assertEquals(List.of("c"), ids(second.getContent()));
+		assertNull(second.getNextCursor());
+
+		// The previous page starts at the null-named student, so null cursor values must round-trip
+		CursorPage<Student> back = index.findCursorPage(request, PageCursor.decode(second.getPrevCursor()));
+		assertEquals(List.of("a", "b"), ids(back.getContent()));
+	}
+
+	@Test
+	void reindexesChangedValuesAndRemovals() {
+		index.put(student("a", "Al", "Colombo"));
+		index.put(student("b", "Bo", "Colombo"));
+		index.put(student("a", "Cy", "Colombo"));
+		index.remove("b");
+
+		assertEquals(1, index.size());
+		assertEquals(List.of("a"), ids(index.findPage(byName(PageRequest.SortDirection.ASC, 0, 10))));
+	}
+}
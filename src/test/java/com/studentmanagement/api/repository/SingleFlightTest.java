@@ -0,0 +1,77 @@
+package com.studentmanagement.api.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SingleFlight singleFlight = new SingleFlight("students", true, meterRegistry);
+
+	@Test
+	void identicalConcurrentReadsShareOneCallUntilItCompletes() {
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<String> firestore = new CompletableFuture<>();
+
+		CompletableFuture<String> first = singleFlight.execute("findById", "s1", () -> {
+			calls.incrementAndGet();
+			return firestore;
+		});
+		CompletableFuture<String> second = singleFlight.execute("findById", "s1", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		CompletableFuture<String> otherKey = singleFlight.execute("findById", "s2", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("s2");
+		});
+		second.cancel(true);
+		firestore.complete("s1");
+
+		assertEquals("s1", first.join());
+		assertEquals("s2", otherKey.join());
+		assertEquals(2, calls.get());
+		assertEquals(1.0, meterRegistry.counter("firestore.single.flight",
+				"collection", "students", "operation", "findById", "result", "joined").count());
+
+		singleFlight.execute("findById", "s1", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("again");
+		}).join();
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	void failureReachesEveryWaiter() {
+		CompletableFuture<String> firestore = new CompletableFuture<>();
+		CompletableFuture<String> first = singleFlight.execute("count", "all", () -> firestore);
+		CompletableFuture<String> second = singleFlight.execute("count", "all", CompletableFuture::new);
+		IllegalStateException failure = new IllegalStateException("unavailable");
+
+		firestore.completeExceptionally(failure);
+
+		assertSame(failure, assertThrows(CompletionException.class, first::join).getCause());
+		assertSame(failure, assertThrows(CompletionException.class, second::join).getCause());
+	}
+
+	@Test
+	void synchronousFailureIsRethrownAndDoesNotBlockLaterCalls() {
+		assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("countMatching", "bad", () -> {
+			throw new IllegalArgumentException("bad filter");
+		}));
+
+		CompletableFuture<String> next = singleFlight.execute("countMatching", "bad",
+				() -> CompletableFuture.completedFuture("ok"));
+		assertFalse(next.isCompletedExceptionally());
+		assertEquals("ok", next.join());
+	}
+}
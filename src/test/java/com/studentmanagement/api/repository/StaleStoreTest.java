@@ -0,0 +1,94 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.exception.InvalidQueryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaleStoreTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final StaleStore store = new StaleStore("students", new FirestoreProperties.Stale(), meterRegistry);
+	private final Deque<CompletableFuture<String>> answers = new ArrayDeque<>();
+	private int calls;
+
+	private CompletableFuture<Fetched<String>> read() {
+		return store.read("findById", "s1", () -> {
+			calls++;
+			return answers.poll();
+		});
+	}
+
+	private static CompletableFuture<String> unavailable() {
+		return CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+	}
+
+	@Test
+	void servesTheLastGoodResultAndRevalidatesIt() {
+		answers.add(CompletableFuture.completedFuture("v1"));
+		answers.add(unavailable());
+		answers.add(CompletableFuture.completedFuture("v2"));
+		answers.add(unavailable());
+
+		Fetched<String> fresh = read().join();
+		assertEquals("v1", fresh.value());
+		assertFalse(fresh.isStale());
+
+		Fetched<String> stale = read().join();
+		assertEquals("v1", stale.value());
+		assertTrue(stale.isStale());
+		// The background revalidation already ran and stored v2
+		assertEquals(3, calls);
+
+		assertEquals("v2", read().join().value());
+		assertEquals(2.0, meterRegistry.counter("firestore.stale.served",
+				"collection", "students", "operation", "findById").count());
+	}
+
+	@Test
+	void invalidQueriesStillFail() {
+		answers.add(CompletableFuture.completedFuture("v1"));
+		answers.add(CompletableFuture.failedFuture(new InvalidQueryException("bad query")));
+
+		read().join();
+		CompletionException failure = assertThrows(CompletionException.class, () -> read().join());
+
+		assertInstanceOf(InvalidQueryException.class, failure.getCause());
+	}
+
+	@Test
+	void evictedResultsAreNotServed() {
+		answers.add(CompletableFuture.completedFuture("v1"));
+		answers.add(unavailable());
+
+		read().join();
+		store.evict("findById", "s1");
+
+		assertThrows(CompletionException.class, () -> read().join());
+	}
+
+	@Test
+	void combinedResultIsAsStaleAsItsOldestPart() {
+		Fetched<String> page = new Fetched<>("page", Instant.ofEpochSecond(200));
+		Fetched<Long> count = new Fetched<>(5L, Instant.ofEpochSecond(100));
+
+		Fetched<String> combined = page.combine(count, (content, total) -> content + "/" + total);
+
+		assertEquals("page/5", combined.value());
+		assertEquals(Instant.ofEpochSecond(100), combined.staleSince());
+		assertNull(Fetched.fresh("page").combine(Fetched.fresh(5L), (content, total) -> content).staleSince());
+	}
+}
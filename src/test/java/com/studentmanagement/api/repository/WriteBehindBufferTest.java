@@ -0,0 +1,148 @@
+package com.studentmanagement.api.repository;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindBufferTest {
+
+	private final List<List<String>> batches = new ArrayList<>();
+	private CompletableFuture<Void> commit = CompletableFuture.completedFuture(null);
+	private WriteBehindBuffer<String> buffer;
+
+	private WriteBehindBuffer<String> buffer(int maxPending) {
+		FirestoreProperties.WriteBehind properties = new FirestoreProperties.WriteBehind();
+		properties.setEnabled(true);
+		// Flushed by the tests, not the timer
+		properties.setFlushInterval(Duration.ofHours(1));
+		properties.setMaxPending(maxPending);
+		properties.setBatchSize(2);
+		properties.setMaxAttempts(2);
+		properties.setShutdownTimeout(Duration.ofMillis(100));
+		buffer = new WriteBehindBuffer<>("students", properties, documents -> {
+			batches.add(documents);
+			return commit;
+		}, new SimpleMeterRegistry());
+		return buffer;
+	}
+
+	@AfterEach
+	void close() {
+		commit = CompletableFuture.completedFuture(null);
+		buffer.close();
+	}
+
+	@Test
+	void writesOnlyTheLatestUpdatePerId() {
+		WriteBehindBuffer<String> buffer = buffer(10);
+
+		buffer.offer("a", "a1");
+		buffer.offer("a", "a2");
+		buffer.offer("b", "b1");
+		assertEquals("a2", buffer.get("a"));
+
+		buffer.flush().join();
+
+		assertEquals(1, batches.size());
+		assertTrue(batches.get(0).containsAll(List.of("a2", "b1")));
+		assertNull(buffer.get("a"));
+	}
+
+	@Test
+	void keepsFailedUpdatesForTheNextFlush() {
+		WriteBehindBuffer<String> buffer = buffer(10);
+		commit = CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+
+		buffer.offer("a", "a1");
+		buffer.flush().exceptionally(throwable -> null).join();
+		assertEquals("a1", buffer.get("a"));
+
+		commit = CompletableFuture.completedFuture(null);
+		buffer.flush().join();
+		assertEquals(List.of(List.of("a1"), List.of("a1")), batches);
+		assertNull(buffer.get("a"));
+	}
+
+	@Test
+	void dropsAnUpdateAfterMaxAttempts() {
+		WriteBehindBuffer<String> buffer = buffer(10);
+		commit = CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+
+		buffer.offer("a", "a1");
+		buffer.flush().exceptionally(throwable -> null).join();
+		buffer.flush().exceptionally(throwable -> null).join();
+
+		assertEquals(2, batches.size());
+		assertNull(buffer.get("a"));
+	}
+
+	@Test
+	void discardWaitsForTheFlushInFlight() {
+		WriteBehindBuffer<String> buffer = buffer(10);
+		CompletableFuture<Void> inFlight = new CompletableFuture<>();
+		commit = inFlight;
+
+		buffer.offer("a", "a1");
+		buffer.flush();
+		CompletableFuture<Void> discarded = buffer.discard(List.of("a"));
+
+		assertFalse(discarded.isDone());
+		inFlight.complete(null);
+		assertTrue(discarded.isDone());
+		assertNull(buffer.get("a"));
+	}
+
+	@Test
+	void aBulkWriteIsNotOverwrittenByALaterFlush() {
+		WriteBehindBuffer<String> buffer = buffer(10);
+
+		buffer.offer("a", "a1");
+		// saveAll discards the pending updates of the ids it writes before committing its batch
+		buffer.discard(List.of("a")).join();
+		buffer.flush().join();
+
+		assertTrue(batches.isEmpty());
+		assertNull(buffer.get("a"));
+	}
+
+	@Test
+	void aBulkWriteWaitsForTheFlushInFlight() {
+		WriteBehindBuffer<String> buffer = buffer(10);
+		CompletableFuture<Void> inFlight = new CompletableFuture<>();
+		commit = inFlight;
+		buffer.offer("a", "a1");
+		buffer.flush();
+
+		List<String> written = new ArrayList<>();
+		CompletableFuture<Void> bulk = buffer.discard(List.of("a")).thenRun(() -> written.add("a2"));
+		assertTrue(written.isEmpty());
+
+		inFlight.complete(null);
+		bulk.join();
+		buffer.flush().join();
+
+		// The older buffered value is written before the bulk value, never after it
+		assertEquals(List.of("a2"), written);
+		assertEquals(List.of(List.of("a1")), batches);
+	}
+
+	@Test
+	void bypassesNewIdsOnceFull() {
+		WriteBehindBuffer<String> buffer = buffer(1);
+
+		assertTrue(buffer.offer("a", "a1"));
+		assertFalse(buffer.offer("b", "b1"));
+		assertTrue(buffer.offer("a", "a2"));
+	}
+}
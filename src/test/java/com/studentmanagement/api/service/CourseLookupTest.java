@@ -0,0 +1,63 @@
+package com.studentmanagement.api.service;
+
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseLookupTest {
+
+	@Test
+	void resolvesIdsAndNamesInOneRoundTripEachAndMemoizes() {
+		CourseRepository repository = mock(CourseRepository.class);
+		Course java = course("c1", "Java");
+		Course python = course("c2", "Python");
+		when(repository.findAllById(anyCollection())).thenReturn(CompletableFuture.completedFuture(Map.of("c1", java)));
+		when(repository.findAllByNameIn(anyCollection())).thenReturn(CompletableFuture.completedFuture(List.of(python)));
+		CourseLookup lookup = new CourseLookup(repository,
+				course -> CourseResponseDto.builder().id(course.getId()).name(course.getName()).build());
+
+		List<String> references = List.of("c1", "Python", "c1", "Missing", "Python");
+		Map<String, CourseResponseDto> first = lookup.resolve(references).join();
+		Map<String, CourseResponseDto> second = lookup.resolve(references).join();
+
+		assertEquals(Set.of("c1", "Python"), first.keySet());
+		assertEquals("c2", first.get("Python").getId());
+		assertEquals(first, second);
+		verify(repository, times(1)).findAllById(Set.of("c1", "Python", "Missing"));
+		verify(repository, times(1)).findAllByNameIn(Set.of("Python", "Missing"));
+	}
+
+	@Test
+	void looksUpReferencesThatCannotBeDocumentIdsByNameOnly() {
+		CourseRepository repository = mock(CourseRepository.class);
+		Course ai = course("c3", "AI/ML");
+		when(repository.findAllById(anyCollection())).thenReturn(CompletableFuture.completedFuture(Map.of()));
+		when(repository.findAllByNameIn(anyCollection())).thenReturn(CompletableFuture.completedFuture(List.of(ai)));
+		CourseLookup lookup = new CourseLookup(repository,
+				course -> CourseResponseDto.builder().id(course.getId()).name(course.getName()).build());
+
+		Map<String, CourseResponseDto> resolved = lookup.resolve(List.of("AI/ML", "..", "__id__", "c9")).join();
+
+		assertEquals(Set.of("AI/ML"), resolved.keySet());
+		verify(repository, times(1)).findAllById(Set.of("c9"));
+		verify(repository, times(1)).findAllByNameIn(Set.of("AI/ML", "..", "__id__", "c9"));
+	}
+
+	private static Course course(String id, String name) {
+		return Course.builder().id(id).name(name).fee(BigDecimal.TEN).lecturerId("l1").lecturerName("Lecturer").build();
+	}
+}
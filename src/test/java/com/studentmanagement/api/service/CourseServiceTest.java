@@ -0,0 +1,101 @@
+package com.studentmanagement.api.service;
+
+import com.google.cloud.Timestamp;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.CourseRequestDto;
+import com.studentmanagement.api.dto.CourseResponseDto;
+import com.studentmanagement.api.exception.CourseNotFoundException;
+import com.studentmanagement.api.model.Course;
+import com.studentmanagement.api.repository.CourseRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseServiceTest {
+
+	private static final Timestamp CREATED = Timestamp.ofTimeSecondsAndNanos(100, 0);
+	private static final Timestamp UPDATED = Timestamp.ofTimeSecondsAndNanos(200, 0);
+
+	private CourseRepository repository;
+	private CourseService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(CourseRepository.class);
+		service = new CourseService(repository, Validation.buildDefaultValidatorFactory().getValidator(),
+				new FirestoreProperties());
+	}
+
+	@Test
+	void createLeavesTimestampsToTheServerAndMapsTheSavedCourse() {
+		Course saved = course("c1", "Java", CREATED, CREATED);
+		when(repository.save(any(Course.class))).thenReturn(CompletableFuture.completedFuture(saved));
+
+		CourseResponseDto created = service.createCourse(request("Java")).join();
+
+		ArgumentCaptor<Course> written = ArgumentCaptor.forClass(Course.class);
+		verify(repository).save(written.capture());
+		assertNull(written.getValue().getId());
+		assertNull(written.getValue().getCreatedAt());
+		assertEquals(new BigDecimal("1500.00"), written.getValue().getFee());
+		assertEquals(CourseService.mapToResponseDto(saved), created);
+		verify(repository, never()).findById(anyString());
+		verify(repository, never()).fetchById(anyString());
+	}
+
+	@Test
+	void updateKeepsCreatedAtAndSkipsTheReRead() {
+		Course saved = course("c1", "Kotlin", CREATED, UPDATED);
+		when(repository.findById("c1"))
+				.thenReturn(CompletableFuture.completedFuture(course("c1", "Java", CREATED, CREATED)));
+		when(repository.save(any(Course.class))).thenReturn(CompletableFuture.completedFuture(saved));
+
+		CourseResponseDto updated = service.updateCourse("c1", request("Kotlin")).join();
+
+		ArgumentCaptor<Course> written = ArgumentCaptor.forClass(Course.class);
+		verify(repository).save(written.capture());
+		assertEquals("c1", written.getValue().getId());
+		assertEquals(CREATED, written.getValue().getCreatedAt());
+		assertEquals("Kotlin", written.getValue().getName());
+		assertEquals(CourseService.mapToResponseDto(saved), updated);
+		verify(repository, times(1)).findById("c1");
+		verify(repository, never()).fetchById(anyString());
+	}
+
+	@Test
+	void updateOfAMissingCourseWritesNothing() {
+		when(repository.findById("c1")).thenReturn(CompletableFuture.completedFuture(null));
+
+		CompletionException failure = assertThrows(CompletionException.class,
+				() -> service.updateCourse("c1", request("Kotlin")).join());
+
+		assertInstanceOf(CourseNotFoundException.class, failure.getCause());
+		verify(repository, never()).save(any(Course.class));
+	}
+
+	private static Course course(String id, String name, Timestamp createdAt, Timestamp updatedAt) {
+		return Course.builder().id(id).name(name).fee(new BigDecimal("1500.00")).lecturerId("l1")
+				.lecturerName("Lecturer").createdAt(createdAt).updatedAt(updatedAt).build();
+	}
+
+	private CourseRequestDto request(String name) {
+		return new CourseRequestDto(name, "1500.00", "l1", "Lecturer");
+	}
+}
@@ -0,0 +1,70 @@
+package com.studentmanagement.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+	private static List<List<String>> readAll(String csv) throws IOException {
+		List<List<String>> records = new ArrayList<>();
+		try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+			List<String> record;
+			while ((record = reader.readRecord()) != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	@Test
+	void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+		List<List<String>> records = readAll("a,\"b,c\",\"say \"\"hi\"\"\"\n\"two\nlines\",,x\n");
+
+		assertEquals(List.of(List.of("a", "b,c", "say \"hi\""), List.of("two\nlines", "", "x")), records);
+	}
+
+	@Test
+	void crlfLfAndBareCrAllEndARecord() throws IOException {
+		assertEquals(List.of(List.of("a", "b"), List.of("c"), List.of("d"), List.of("e")),
+				readAll("a,b\r\nc\nd\re"));
+	}
+
+	@Test
+	void skipsBlankLinesAndALeadingByteOrderMark() throws IOException {
+		assertEquals(List.of(List.of("a"), List.of("b")), readAll("\uFEFFa\n\n  \nb\n"));
+	}
+
+	@Test
+	void recordLinesCountLineBreaksInsideQuotes() throws IOException {
+		try (CsvReader reader = new CsvReader(new StringReader("h\r\"x\r\ny\"\rz\n"))) {
+			reader.readRecord();
+			assertEquals(1, reader.getRecordLine());
+			reader.readRecord();
+			assertEquals(2, reader.getRecordLine());
+			reader.readRecord();
+			assertEquals(4, reader.getRecordLine());
+		}
+	}
+
+	@Test
+	void rejectsTextAfterAClosingQuote() {
+		IOException failure = assertThrows(IOException.class, () -> readAll("h\nok\n\"abc\"def\n"));
+
+		assertTrue(failure.getMessage().endsWith("on line 3"), failure.getMessage());
+	}
+
+	@Test
+	void rejectsAnUnterminatedQuotedField() {
+		IOException failure = assertThrows(IOException.class, () -> readAll("h\n\"abc\n"));
+
+		assertTrue(failure.getMessage().endsWith("on line 2"), failure.getMessage());
+	}
+}
@@ -0,0 +1,77 @@
+package com.studentmanagement.api.service;
+
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+	private static final Map<String, Float> WEIGHTS = Map.of("name", 3f, "city", 1f);
+
+	private final SearchIndex<String> index = new SearchIndex<>();
+
+	@Test
+	void matchesEveryTokenByPrefixIgnoringCaseAndAccents() {
+		put("1", 1, "José Perera", "Colombo");
+		put("2", 1, "Joseph Silva", "Kandy");
+		put("3", 1, "Nimal Perera", "Colombo");
+
+		assertEquals(List.of("1", "2"), ids("jos"));
+		assertEquals(List.of("1"), ids("JOSE col"));
+		assertEquals(List.of(), ids("jos galle"));
+	}
+
+	@Test
+	void ranksWholeTermsAndHeavierFieldsFirst() {
+		put("city", 1, "Anne", "Colombo");
+		put("name", 1, "Colombo Fernando", "Galle");
+		put("prefix", 1, "Colombage", "Galle");
+
+		// Whole-term matches score double; equal scores fall back to id order
+		assertEquals(List.of("name", "city"), ids("colombo"));
+		assertEquals(List.of("name", "prefix", "city"), ids("colomb"));
+	}
+
+	@Test
+	void ignoresStaleVersionsAndForgetsRemovedDocuments() {
+		put("1", 2, "Kamal", "Jaffna");
+		put("1", 1, "Old Name", "Jaffna");
+		assertEquals(List.of("1"), ids("kamal"));
+		assertEquals(List.of(), ids("old"));
+
+		index.remove("1", Timestamp.ofTimeSecondsAndNanos(3, 0));
+		put("1", 2, "Kamal", "Jaffna");
+		assertEquals(List.of(), ids("kamal"));
+
+		put("2", 1, "Sunil", "Jaffna");
+		index.retainOnly(Set.of(), Timestamp.now());
+		assertTrue(ids("jaffna").isEmpty());
+	}
+
+	@Test
+	void deletionOlderThanTheIndexedCopyIsIgnored() {
+		put("1", 5, "Kamal", "Jaffna");
+
+		// Recreated after the deletion committed; the late event must not drop the new copy
+		index.remove("1", Timestamp.ofTimeSecondsAndNanos(4, 0));
+		assertEquals(List.of("1"), ids("kamal"));
+
+		index.remove("1", Timestamp.ofTimeSecondsAndNanos(6, 0));
+		put("1", 5, "Kamal", "Jaffna");
+		assertEquals(List.of(), ids("kamal"));
+	}
+
+	private void put(String id, long version, String name, String city) {
+		index.put(id, Timestamp.ofTimeSecondsAndNanos(version, 0), id, Map.of("name", name, "city", city), WEIGHTS);
+	}
+
+	private List<String> ids(String query) {
+		return index.search(query, 10).stream().map(SearchIndex.Hit::id).toList();
+	}
+}
@@ -0,0 +1,88 @@
+package com.studentmanagement.api.service;
+
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.ImportReportDto;
+import com.studentmanagement.api.repository.StudentRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A leaked permit makes the import wait forever, so every test is bounded
+@Timeout(10)
+class StudentImportServiceTest {
+
+	private static final String CSV = """
+			title,name,address,city,course
+			Mr,Ann,1 Main St,Colombo,CS
+			Ms,Bea,2 Main St,Kandy,IT
+			Mr,Cal,3 Main St,Galle,CS
+			""";
+
+	private StudentRepository repository;
+	private StudentImportService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(StudentRepository.class);
+		FirestoreProperties properties = new FirestoreProperties();
+		properties.getCsvImport().setBatchSize(1);
+		properties.getCsvImport().setMaxInFlightBatches(1);
+		properties.getCsvImport().setMaxWritesPerSecond(0);
+		service = new StudentImportService(repository,
+				Validation.buildDefaultValidatorFactory().getValidator(), properties);
+	}
+
+	@Test
+	void aBatchThatThrowsWithoutAMessageFailsItsRowsAndReleasesItsSlot() {
+		when(repository.saveAll(anyList())).thenThrow(new NullPointerException());
+
+		ImportReportDto report = service.importStudents(csv(), "students.csv");
+
+		assertEquals(ImportReportDto.Status.COMPLETED, report.getStatus());
+		assertEquals(3, report.getRowsFailed());
+		assertEquals(List.of("NullPointerException"), report.getErrors().get(0).getErrors());
+	}
+
+	@Test
+	void aBatchThatFailsWithoutAMessageFailsItsRows() {
+		when(repository.saveAll(anyList())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException()));
+
+		ImportReportDto report = service.importStudents(csv(), "students.csv");
+
+		assertEquals(3, report.getRowsFailed());
+		assertEquals(List.of("IllegalStateException"), report.getErrors().get(0).getErrors());
+	}
+
+	@Test
+	void anErrorWithoutAMessageStillFailsTheImport() {
+		when(repository.saveAll(anyList())).thenAnswer(invocation -> CompletableFuture.completedFuture(List.of()));
+		AtomicInteger checks = new AtomicInteger();
+
+		ImportReportDto report = service.importStudents(csv(), "students.csv", () -> {
+			if (checks.incrementAndGet() > 1) {
+				throw new IllegalStateException();
+			}
+			return false;
+		});
+
+		assertEquals(ImportReportDto.Status.FAILED, report.getStatus());
+		assertEquals("IllegalStateException", report.getFailureReason());
+	}
+
+	private static InputStream csv() {
+		return new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8));
+	}
+}
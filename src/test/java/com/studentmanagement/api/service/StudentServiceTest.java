@@ -0,0 +1,139 @@
+package com.studentmanagement.api.service;
+
+import com.google.cloud.Timestamp;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.studentmanagement.api.config.FirestoreProperties;
+import com.studentmanagement.api.dto.PageRequest;
+import com.studentmanagement.api.dto.SparseStudentResponseDto;
+import com.studentmanagement.api.dto.StudentRequestDto;
+import com.studentmanagement.api.dto.StudentResponseDto;
+import com.studentmanagement.api.model.Student;
+import com.studentmanagement.api.repository.Fetched;
+import com.studentmanagement.api.repository.StudentRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentServiceTest {
+
+	private static final Timestamp CREATED = Timestamp.ofTimeSecondsAndNanos(100, 0);
+	private static final Timestamp UPDATED = Timestamp.ofTimeSecondsAndNanos(200, 0);
+
+	private StudentRepository repository;
+	private StudentService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(StudentRepository.class);
+		service = new StudentService(repository, Validation.buildDefaultValidatorFactory().getValidator(),
+				new FirestoreProperties(), mock(CourseService.class));
+	}
+
+	@Test
+	void createLeavesTimestampsToTheServerAndMapsTheSavedStudent() {
+		// What the repository hands back after the write, commit time applied
+		Student saved = student("s1", "Eranga", CREATED, CREATED);
+		when(repository.save(any(Student.class))).thenReturn(CompletableFuture.completedFuture(saved));
+
+		StudentResponseDto created = service.createStudent(request("Eranga")).join();
+
+		ArgumentCaptor<Student> written = ArgumentCaptor.forClass(Student.class);
+		verify(repository).save(written.capture());
+		assertNull(written.getValue().getId());
+		assertNull(written.getValue().getCreatedAt());
+		assertEquals("Eranga", written.getValue().getName());
+		assertEquals(StudentService.mapToResponseDto(saved), created);
+		verify(repository, never()).findById(anyString());
+		verify(repository, never()).fetchById(anyString());
+	}
+
+	@Test
+	void updateKeepsCreatedAtAndSkipsTheReRead() {
+		Student saved = student("s1", "Harsha", CREATED, UPDATED);
+		when(repository.findById("s1"))
+				.thenReturn(CompletableFuture.completedFuture(student("s1", "Eranga", CREATED, CREATED)));
+		when(repository.save(any(Student.class))).thenReturn(CompletableFuture.completedFuture(saved));
+
+		StudentResponseDto updated = service.updateStudent("s1", request("Harsha")).join();
+
+		ArgumentCaptor<Student> written = ArgumentCaptor.forClass(Student.class);
+		verify(repository).save(written.capture());
+		assertEquals("s1", written.getValue().getId());
+		assertEquals(CREATED, written.getValue().getCreatedAt());
+		assertEquals("Harsha", written.getValue().getName());
+		assertEquals(StudentService.mapToResponseDto(saved), updated);
+		// Only the existence check, no read-back after the write
+		verify(repository, times(1)).findById("s1");
+		verify(repository, never()).fetchById(anyString());
+	}
+
+	@Test
+	void sparseMappingKeepsOnlyTheIdAndRequestedFields() throws Exception {
+		Student student = student("s1", "Eranga", CREATED, UPDATED);
+
+		StudentResponseDto sparse = StudentService.mapToResponseDto(student, Set.of("name"));
+
+		assertInstanceOf(SparseStudentResponseDto.class, sparse);
+		assertEquals("{\"id\":\"s1\",\"name\":\"Eranga\"}", new ObjectMapper().writeValueAsString(sparse));
+	}
+
+	@Test
+	void fullResponsesKeepTheirNullFields() throws Exception {
+		Student student = student("s1", "Eranga", null, null);
+		student.setAddress(null);
+
+		String json = new ObjectMapper().writeValueAsString(StudentService.mapToResponseDto(student, Set.of()));
+
+		assertTrue(json.contains("\"address\":null"));
+		assertFalse(json.contains("courseDetails"));
+	}
+
+	@Test
+	void expandingTheCourseAlsoReadsTheCourseReference() {
+		assertEquals(Set.of(), StudentService.fieldsToRead(Set.of(), true));
+		assertEquals(Set.of("name"), StudentService.fieldsToRead(Set.of("name"), false));
+		assertEquals(Set.of("name", "course"), StudentService.fieldsToRead(Set.of("name"), true));
+	}
+
+	@Test
+	void pagingReadsExtraFieldsWithoutChangingTheCallersRequest() {
+		when(repository.findAllWithPagination(any(PageRequest.class))).thenReturn(CompletableFuture.completedFuture(
+				Fetched.fresh(List.of(student("s1", "Eranga", CREATED, UPDATED)))));
+		when(repository.count(anyMap())).thenReturn(CompletableFuture.completedFuture(Fetched.fresh(1L)));
+		PageRequest request = PageRequest.builder().sortBy("name").fields(Set.of("name")).build();
+
+		service.getAllStudentsWithPagination(request, true).join();
+
+		ArgumentCaptor<PageRequest> read = ArgumentCaptor.forClass(PageRequest.class);
+		verify(repository).findAllWithPagination(read.capture());
+		assertEquals(Set.of("name", "course"), read.getValue().getFields());
+		assertEquals(Set.of("name"), request.getFields());
+	}
+
+	private static Student student(String id, String name, Timestamp createdAt, Timestamp updatedAt) {
+		return new Student(id, "Mr", name, "test", "test", "IT", createdAt, updatedAt);
+	}
+
+	private StudentRequestDto request(String name) {
+		return new StudentRequestDto("Mr", name, "test", "test", "IT");
+	}
+}